@@ -0,0 +1,141 @@
+package org.cloudsimplus.workload;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.PeriodicTaskScheduler;
+import org.cloudbus.cloudsim.core.PeriodicTaskScheduler.PeriodicTask;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Submits Cloudlets to a broker as they arrive according to an {@link ArrivalSource},
+ * instead of creating Cloudlets at every simulation clock tick.
+ *
+ * <p>Arrivals are read from the source in batches, into primitive arrays.
+ * Cloudlets are just created when they are about to arrive: at every lookahead interval,
+ * the Cloudlets arriving up to the next interval are created by a {@link CloudletFactory}
+ * and submitted in a single list, each one with a submission delay
+ * equal to the time remaining for its arrival.
+ * If no Cloudlet arrives up to the next interval, the next arriving Cloudlet is submitted anyway,
+ * so that the simulation doesn't finish while there are arrivals to come.</p>
+ */
+public class ArrivalProcessEngine {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final DatacenterBroker broker;
+    private final ArrivalSource source;
+    private final CloudletFactory cloudletFactory;
+    private final double lookahead;
+    private final PeriodicTask task;
+
+    private final double[] times;
+    private final long[] lengths;
+    private final int[] pes;
+    private int next;
+    private int size;
+    private boolean sourceFinished;
+
+    private long submittedCloudlets;
+    private long submissions;
+
+    /**
+     * Creates an engine that reads {@link #DEFAULT_BATCH_SIZE} arrivals at a time from the source.
+     *
+     * @see #ArrivalProcessEngine(PeriodicTaskScheduler, DatacenterBroker, ArrivalSource, CloudletFactory, double, int)
+     */
+    public ArrivalProcessEngine(
+        final PeriodicTaskScheduler scheduler, final DatacenterBroker broker,
+        final ArrivalSource source, final CloudletFactory cloudletFactory, final double lookahead)
+    {
+        this(scheduler, broker, source, cloudletFactory, lookahead, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an engine, which starts submitting Cloudlets when the simulation starts.
+     *
+     * @param scheduler the scheduler used to submit Cloudlets at every lookahead interval
+     * @param broker the broker to submit Cloudlets to
+     * @param source the source of arrivals
+     * @param cloudletFactory the factory used to create a Cloudlet for each arrival
+     * @param lookahead the interval (in seconds) between submissions
+     * @param batchSize the number of arrivals read at a time from the source
+     */
+    public ArrivalProcessEngine(
+        final PeriodicTaskScheduler scheduler, final DatacenterBroker broker,
+        final ArrivalSource source, final CloudletFactory cloudletFactory,
+        final double lookahead, final int batchSize)
+    {
+        if(batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero.");
+        }
+
+        this.broker = Objects.requireNonNull(broker);
+        this.source = Objects.requireNonNull(source);
+        this.cloudletFactory = Objects.requireNonNull(cloudletFactory);
+        this.lookahead = lookahead;
+        this.times = new double[batchSize];
+        this.lengths = new long[batchSize];
+        this.pes = new int[batchSize];
+        this.task = scheduler.schedule(lookahead, this::submitArrivals);
+    }
+
+    private void submitArrivals(final EventInfo evt) {
+        final double time = evt.getTime();
+        final double until = time + lookahead;
+        List<Cloudlet> cloudlets = null;
+        while (hasNextArrival() && (cloudlets == null || times[next] < until)) {
+            if(cloudlets == null) {
+                cloudlets = new ArrayList<>();
+            }
+
+            final Cloudlet cloudlet = cloudletFactory.create(lengths[next], pes[next]);
+            cloudlet.setSubmissionDelay(Math.max(0, times[next] - time));
+            cloudlets.add(cloudlet);
+            next++;
+        }
+
+        if(cloudlets != null) {
+            broker.submitCloudletList(cloudlets);
+            submittedCloudlets += cloudlets.size();
+            submissions++;
+        }
+
+        if(!hasNextArrival()) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Checks if there is an arrival not submitted yet, reading the next batch from the source if required.
+     */
+    private boolean hasNextArrival() {
+        if(next == size && !sourceFinished) {
+            size = source.fill(times, lengths, pes, times.length);
+            next = 0;
+            sourceFinished = size == 0;
+        }
+
+        return next < size;
+    }
+
+    /**
+     * @return true if all arrivals were submitted, false otherwise
+     */
+    public boolean isFinished() {
+        return sourceFinished;
+    }
+
+    public long getSubmittedCloudlets() {
+        return submittedCloudlets;
+    }
+
+    /**
+     * @return the number of times a list of Cloudlets was submitted to the broker
+     */
+    public long getSubmissions() {
+        return submissions;
+    }
+}
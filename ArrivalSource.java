@@ -0,0 +1,23 @@
+package org.cloudsimplus.workload;
+
+/**
+ * A source of Cloudlet arrivals, which produces the arrival time, length and number of PEs
+ * of Cloudlets in bulk, into primitive arrays, so that no object is created for arrivals
+ * which are not due yet.
+ *
+ * <p>Arrivals must be produced in non-decreasing order of time.</p>
+ *
+ * @see ArrivalProcessEngine
+ */
+public interface ArrivalSource {
+    /**
+     * Fills the given arrays with the next arrivals, starting at index 0.
+     *
+     * @param times the array to store the arrival time (in seconds) of each Cloudlet
+     * @param lengths the array to store the length (in MI) of each Cloudlet
+     * @param pes the array to store the number of PEs of each Cloudlet
+     * @param max the maximum number of arrivals to produce (not greater than the length of the arrays)
+     * @return the number of produced arrivals, which is zero only when there are no more arrivals
+     */
+    int fill(double[] times, long[] lengths, int[] pes, int max);
+}
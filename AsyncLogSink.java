@@ -0,0 +1,409 @@
+package org.cloudsimplus.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A log sink that moves message formatting and console writing out of the simulation thread.
+ * The simulation thread just copies the id of a pre-registered format and its numeric arguments
+ * into a slot of a lock-free ring buffer, and a background thread formats and writes the messages.
+ *
+ * <p>Formats are registered once by {@link #registerFormat(String)} and messages are logged
+ * by {@link #log(Level, int, double, double)} and its overloads, which receive primitive arguments.
+ * Arguments are stored as doubles and converted back to longs for integral conversions
+ * (such as {@code %d}), so that any id or counter up to 2<sup>53</sup> is printed exactly.
+ * When the level of a message is disabled, logging it is a single comparison and doesn't allocate anything.
+ * Pre-built messages can be logged by {@link #log(Level, String)}, which should be called
+ * only after checking {@link #isEnabled(Level)}, to avoid building messages that won't be printed.</p>
+ *
+ * <p>The ring buffer supports a single producer thread (the simulation thread).
+ * If it's full, the producer waits for the background thread to release a slot,
+ * so messages are never lost. {@link #close()} must be called when the simulation finishes,
+ * to write pending messages. If the background thread dies (for instance, due to an error writing messages),
+ * logging fails with an {@link IllegalStateException} instead of waiting forever for a free slot.</p>
+ *
+ * <p>The ring buffer and the background thread are only created when the level is not {@link Level#OFF},
+ * so that a disabled sink costs nothing.</p>
+ */
+public class AsyncLogSink implements Closeable {
+    /**
+     * The levels of messages, from the most to the least detailed.
+     */
+    public enum Level {DEBUG, INFO, WARN, OFF}
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final int MAX_ARGS = 7;
+
+    private static final int MESSAGE_FORMAT = -1;
+    private static final int SLOT_LONGS = 1 + MAX_ARGS;
+    private static final Pattern CONVERSION = Pattern.compile("%[-#+ 0,(]*\\d*(?:\\.\\d+)?([a-zA-Z%])");
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private volatile Level level;
+
+    /**
+     * The ring buffer, which is created by {@link #start()} along with the {@link #consumer}.
+     */
+    private long[] slots;
+    private String[] messages;
+    private int mask;
+    private final int slotCount;
+
+    /**
+     * Sequence of the next slot to be written, which is published to the consumer by {@link #published}.
+     * Only accessed by the producer.
+     */
+    private long producerSequence;
+
+    /**
+     * Last value read from {@link #consumed}, to avoid reading the volatile field for every message.
+     * Only accessed by the producer.
+     */
+    private long cachedConsumed;
+    private long producerWaits;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final List<String> formats = new ArrayList<>();
+    private final List<boolean[]> integralArgs = new ArrayList<>();
+
+    private final Writer writer;
+    private Thread consumer;
+    private volatile boolean running = true;
+
+    /**
+     * The error which stopped the {@link #consumer}, if any.
+     */
+    private volatile Throwable consumerFailure;
+
+    /**
+     * Creates a sink with {@link #DEFAULT_CAPACITY} slots that writes to {@link System#out}.
+     *
+     * @param level the minimum level of messages to write
+     */
+    public AsyncLogSink(final Level level) {
+        this(level, DEFAULT_CAPACITY, System.out);
+    }
+
+    /**
+     * Creates a sink.
+     *
+     * @param level the minimum level of messages to write
+     * @param capacity the number of slots in the ring buffer (rounded up to a power of 2)
+     * @param out the stream to write messages to
+     */
+    public AsyncLogSink(final Level level, final int capacity, final PrintStream out) {
+        this.slotCount = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        setLevel(level);
+    }
+
+    /**
+     * Creates the ring buffer and starts the background thread, if not done yet.
+     */
+    private synchronized void start() {
+        if(consumer != null || !running) {
+            return;
+        }
+
+        slots = new long[slotCount * SLOT_LONGS];
+        messages = new String[slotCount];
+        mask = slotCount - 1;
+        consumer = new Thread(this::consume, getClass().getSimpleName());
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Registers a format to be used for logging messages.
+     *
+     * @param format a format string as accepted by {@link Formatter}, with at most {@link #MAX_ARGS} arguments
+     *               (which must end with {@code %n} to write a line)
+     * @return the id of the format, to be given to the log methods
+     */
+    public synchronized int registerFormat(final String format) {
+        final List<Boolean> integral = new ArrayList<>();
+        final Matcher matcher = CONVERSION.matcher(format);
+        while (matcher.find()) {
+            final char conversion = matcher.group(1).charAt(0);
+            if(conversion != '%' && conversion != 'n') {
+                integral.add(conversion == 'd' || conversion == 'o' || conversion == 'x' || conversion == 'X');
+            }
+        }
+
+        if(integral.size() > MAX_ARGS) {
+            throw new IllegalArgumentException("A format can have at most " + MAX_ARGS + " arguments: " + format);
+        }
+
+        final boolean[] integralArray = new boolean[integral.size()];
+        for (int i = 0; i < integralArray.length; i++) {
+            integralArray[i] = integral.get(i);
+        }
+
+        formats.add(format);
+        integralArgs.add(integralArray);
+        return formats.size() - 1;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Changes the minimum level of messages to write, which can be done at any time.
+     *
+     * @param level the new level ({@link Level#OFF} disables all messages)
+     */
+    public void setLevel(final Level level) {
+        Objects.requireNonNull(level);
+        if(level != Level.OFF) {
+            start();
+        }
+
+        //The ring buffer is created before the level is set, so that it's visible to the thread that logs messages
+        this.level = level;
+    }
+
+    /**
+     * Checks if messages of a given level are written.
+     *
+     * @param level the level to check
+     * @return true if messages of that level are written, false otherwise
+     */
+    public boolean isEnabled(final Level level) {
+        return level.compareTo(this.level) >= 0 && level != Level.OFF && consumer != null;
+    }
+
+    /**
+     * Logs a message that is already built.
+     *
+     * @param level the message level
+     * @param message the message (a line separator is appended)
+     */
+    public void log(final Level level, final String message) {
+        if(isEnabled(level)) {
+            final int slot = claimSlot();
+            slots[slot * SLOT_LONGS] = header(MESSAGE_FORMAT, 0);
+            messages[slot] = message;
+            publish();
+        }
+    }
+
+    public void log(final Level level, final int format) {
+        if(isEnabled(level)) {
+            write(format, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public void log(final Level level, final int format, final double a) {
+        if(isEnabled(level)) {
+            write(format, 1, a, 0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public void log(final Level level, final int format, final double a, final double b) {
+        if(isEnabled(level)) {
+            write(format, 2, a, b, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public void log(final Level level, final int format, final double a, final double b, final double c) {
+        if(isEnabled(level)) {
+            write(format, 3, a, b, c, 0, 0, 0, 0);
+        }
+    }
+
+    public void log(final Level level, final int format, final double a, final double b, final double c, final double d) {
+        if(isEnabled(level)) {
+            write(format, 4, a, b, c, d, 0, 0, 0);
+        }
+    }
+
+    public void log(
+        final Level level, final int format,
+        final double a, final double b, final double c, final double d, final double e)
+    {
+        if(isEnabled(level)) {
+            write(format, 5, a, b, c, d, e, 0, 0);
+        }
+    }
+
+    public void log(
+        final Level level, final int format,
+        final double a, final double b, final double c, final double d, final double e, final double f)
+    {
+        if(isEnabled(level)) {
+            write(format, 6, a, b, c, d, e, f, 0);
+        }
+    }
+
+    public void log(
+        final Level level, final int format,
+        final double a, final double b, final double c, final double d, final double e, final double f, final double g)
+    {
+        if(isEnabled(level)) {
+            write(format, 7, a, b, c, d, e, f, g);
+        }
+    }
+
+    private void write(
+        final int format, final int argCount,
+        final double a, final double b, final double c, final double d, final double e, final double f, final double g)
+    {
+        final int slot = claimSlot();
+        final int base = slot * SLOT_LONGS;
+        slots[base] = header(format, argCount);
+        slots[base + 1] = Double.doubleToRawLongBits(a);
+        slots[base + 2] = Double.doubleToRawLongBits(b);
+        slots[base + 3] = Double.doubleToRawLongBits(c);
+        slots[base + 4] = Double.doubleToRawLongBits(d);
+        slots[base + 5] = Double.doubleToRawLongBits(e);
+        slots[base + 6] = Double.doubleToRawLongBits(f);
+        slots[base + 7] = Double.doubleToRawLongBits(g);
+        publish();
+    }
+
+    private static long header(final int format, final int argCount) {
+        return ((long) format << 32) | argCount;
+    }
+
+    /**
+     * Gets the index of the next free slot, waiting for the consumer if the ring buffer is full.
+     */
+    private int claimSlot() {
+        final long wrapPoint = producerSequence - messages.length;
+        if(cachedConsumed <= wrapPoint) {
+            cachedConsumed = consumed.get();
+            while (cachedConsumed <= wrapPoint) {
+                if(!consumer.isAlive()) {
+                    throw new IllegalStateException("The thread writing log messages has stopped.", consumerFailure);
+                }
+
+                producerWaits++;
+                Thread.yield();
+                cachedConsumed = consumed.get();
+            }
+        }
+
+        return (int) (producerSequence & mask);
+    }
+
+    private void publish() {
+        published.lazySet(++producerSequence);
+    }
+
+    private void consume() {
+        try {
+            consumeMessages();
+        } catch (RuntimeException | Error e) {
+            consumerFailure = e;
+            throw e;
+        }
+    }
+
+    private void consumeMessages() {
+        final Formatter formatter = new Formatter(writer);
+        final Object[][] argsBySize = new Object[MAX_ARGS + 1][];
+        for (int i = 0; i <= MAX_ARGS; i++) {
+            argsBySize[i] = new Object[i];
+        }
+
+        long sequence = consumed.get();
+        try {
+            while (true) {
+                /*Reads the running flag before the published sequence,
+                so that messages logged before close() was called are always written.*/
+                final boolean stopping = !running;
+                final long available = published.get();
+                if(sequence == available) {
+                    writer.flush();
+                    if(stopping) {
+                        return;
+                    }
+
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                while (sequence < available) {
+                    final int slot = (int) (sequence & mask);
+                    try {
+                        writeSlot(formatter, argsBySize, slot);
+                    } catch (IllegalFormatException e) {
+                        writer.write("Invalid log format " + formats.get((int) (slots[slot * SLOT_LONGS] >> 32)) + ": " + e);
+                        writer.write(System.lineSeparator());
+                    }
+                    consumed.lazySet(++sequence);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSlot(final Formatter formatter, final Object[][] argsBySize, final int slot) throws IOException {
+        final int base = slot * SLOT_LONGS;
+        final int format = (int) (slots[base] >> 32);
+        if(format == MESSAGE_FORMAT) {
+            writer.write(messages[slot]);
+            writer.write(System.lineSeparator());
+            messages[slot] = null;
+            return;
+        }
+
+        final int argCount = (int) slots[base];
+        final boolean[] integral = integralArgs.get(format);
+        final Object[] args = argsBySize[argCount];
+        for (int i = 0; i < argCount; i++) {
+            final double value = Double.longBitsToDouble(slots[base + 1 + i]);
+            args[i] = i < integral.length && integral[i] ? (Object) (long) value : (Object) value;
+        }
+
+        formatter.format(formats.get(format), args);
+    }
+
+    /**
+     * @return the number of times the simulation thread had to wait for a free slot
+     */
+    public long getProducerWaits() {
+        return producerWaits;
+    }
+
+    /**
+     * Waits for the background thread to write all pending messages and stops it.
+     */
+    @Override
+    public void close() {
+        running = false;
+        final Thread consumer;
+        synchronized (this) {
+            consumer = this.consumer;
+        }
+
+        if(consumer == null) {
+            return;
+        }
+
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
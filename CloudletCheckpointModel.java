@@ -0,0 +1,109 @@
+package org.cloudsimplus.faultinjection;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+
+/**
+ * A model of Cloudlets periodically saving checkpoints of their execution,
+ * so that the clone of a Cloudlet destroyed by a Host fault resumes from the last checkpoint
+ * instead of starting over. It's given to {@link FaultInjectionCloning#cloneCloudlets(org.cloudbus.cloudsim.vms.Vm, CloudletCheckpointModel)}
+ * by the cloning function of a {@link VmClonerSimple}.
+ *
+ * <p>A Cloudlet takes a checkpoint after every checkpoint interval of execution,
+ * which takes the checkpoint overhead to be saved and doesn't progress the Cloudlet meanwhile.
+ * Since the simulation doesn't actually pause Cloudlets to save checkpoints, the checkpointed length
+ * is computed when the Cloudlet is cloned, from the time elapsed since it started and its
+ * average execution rate along that time: only the work done during the intervals before
+ * the last checkpoint is kept, and the work done during overheads and after the last checkpoint is lost.
+ * This way, the overhead is only charged to Cloudlets that are cloned.</p>
+ *
+ * <p>The model records the total length kept by checkpoints and lost by faults for all the Cloudlets cloned.</p>
+ */
+public class CloudletCheckpointModel {
+    private final double interval;
+    private final double overhead;
+    private long totalCheckpointedLength;
+    private long totalLostLength;
+    private long checkpointedCloudlets;
+
+    /**
+     * Creates a checkpoint model.
+     *
+     * @param interval the execution time (in seconds) between checkpoints
+     * @param overhead the time (in seconds) it takes to save a checkpoint
+     */
+    public CloudletCheckpointModel(final double interval, final double overhead) {
+        if(interval <= 0 || overhead < 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be greater than zero and overhead cannot be negative.");
+        }
+
+        this.interval = interval;
+        this.overhead = overhead;
+    }
+
+    /**
+     * Gets the length of a Cloudlet saved by its last checkpoint, recording it
+     * (and the finished length that was lost) into the totals of the model.
+     * It must be called once for each Cloudlet being cloned.
+     *
+     * @param cloudlet the Cloudlet to get the checkpointed length
+     * @return the checkpointed length (in MI), which is always lower than the Cloudlet length
+     */
+    public long checkpoint(final Cloudlet cloudlet) {
+        final long finishedLength = cloudlet.getFinishedLengthSoFar();
+        final long checkpointedLength = Math.min(getCheckpointedLength(cloudlet), cloudlet.getLength() - 1);
+        totalCheckpointedLength += checkpointedLength;
+        totalLostLength += finishedLength - checkpointedLength;
+        if(checkpointedLength > 0) {
+            checkpointedCloudlets++;
+        }
+
+        return checkpointedLength;
+    }
+
+    /**
+     * Computes the length of a Cloudlet saved by its last checkpoint, without recording it.
+     *
+     * @param cloudlet the Cloudlet to get the checkpointed length
+     * @return the checkpointed length (in MI)
+     */
+    public long getCheckpointedLength(final Cloudlet cloudlet) {
+        final long finishedLength = cloudlet.getFinishedLengthSoFar();
+        final double elapsed = cloudlet.getSimulation().clock() - cloudlet.getExecStartTime();
+        if(finishedLength <= 0 || elapsed <= 0) {
+            return 0;
+        }
+
+        final long checkpoints = (long) Math.floor(elapsed / (interval + overhead));
+        return Math.max(0, Math.min(finishedLength, (long) (finishedLength * (checkpoints * interval / elapsed))));
+    }
+
+    public double getInterval() {
+        return interval;
+    }
+
+    public double getOverhead() {
+        return overhead;
+    }
+
+    /**
+     * @return the total length (in MI) of cloned Cloudlets that was kept by checkpoints
+     */
+    public long getTotalCheckpointedLength() {
+        return totalCheckpointedLength;
+    }
+
+    /**
+     * @return the total length (in MI) cloned Cloudlets had finished which was lost,
+     * because it was done after their last checkpoint or while saving checkpoints
+     */
+    public long getTotalLostLength() {
+        return totalLostLength;
+    }
+
+    /**
+     * @return the number of cloned Cloudlets which resumed from a checkpoint
+     */
+    public long getCheckpointedCloudlets() {
+        return checkpointedCloudlets;
+    }
+}
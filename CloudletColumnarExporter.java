@@ -0,0 +1,214 @@
+package org.cloudsimplus.results;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exports the SLA results of finished Cloudlets (id, status, execution start time, finish time,
+ * actual CPU time and total time) into a binary file organized as fixed-width primitive columns,
+ * which can be loaded back by a {@link CloudletColumnarReader} without creating Cloudlet objects.
+ *
+ * <p>The file starts with a header of {@link #HEADER_BYTES} bytes, followed by blocks of
+ * {@link #getBlockRows()} rows each. Inside a block, values are stored column by column,
+ * in the order: ids (long), exec start times, finish times, actual CPU times, total times (double)
+ * and status ordinals (int). All values are little-endian.
+ * Blocks are written through a memory-mapped buffer and a new block is mapped when the
+ * current one is full, so just a single block is mapped at a time, no matter how many rows are written.</p>
+ */
+public class CloudletColumnarExporter implements Closeable {
+    /**
+     * Identifies the file format ("CLTC" in ASCII).
+     */
+    static final int MAGIC = 0x434C5443;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    /**
+     * Position of the row count inside the header.
+     */
+    static final int ROW_COUNT_POSITION = 16;
+
+    /**
+     * Number of bytes each row takes inside a block (5 long/double columns and 1 int column).
+     */
+    static final int ROW_BYTES = 5 * Long.BYTES + Integer.BYTES;
+
+    /**
+     * Maximum number of rows in a block, so that a block fits into a single memory-mapped buffer.
+     */
+    public static final int MAX_BLOCK_ROWS = Integer.MAX_VALUE / ROW_BYTES;
+
+    public static final int DEFAULT_BLOCK_ROWS = 65_536;
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer block;
+    private long blockIndex = -1;
+    private int rowInBlock;
+    private long rows;
+
+    /**
+     * Creates an exporter with blocks of {@link #DEFAULT_BLOCK_ROWS} rows.
+     *
+     * @param file the file to write (which is overwritten if it exists)
+     */
+    public CloudletColumnarExporter(final Path file) {
+        this(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates an exporter.
+     *
+     * @param file the file to write (which is overwritten if it exists)
+     * @param blockRows the number of rows in each block of the file, up to {@link #MAX_BLOCK_ROWS}
+     */
+    public CloudletColumnarExporter(final Path file, final int blockRows) {
+        if(blockRows <= 0 || blockRows > MAX_BLOCK_ROWS) {
+            throw new IllegalArgumentException("The number of rows in each block must be between 1 and " + MAX_BLOCK_ROWS + ".");
+        }
+
+        this.blockRows = blockRows;
+        try {
+            channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            header = map(0, HEADER_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, blockRows);
+        header.putLong(ROW_COUNT_POSITION, 0);
+    }
+
+    private MappedByteBuffer map(final long position, final long size) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Registers a listener into a Cloudlet so that its results are exported when it finishes.
+     *
+     * @param cloudlet the Cloudlet to track
+     * @return the given Cloudlet
+     */
+    public Cloudlet track(final Cloudlet cloudlet) {
+        cloudlet.addOnFinishListener(this::onCloudletFinish);
+        return cloudlet;
+    }
+
+    /**
+     * A listener for the finish of Cloudlets, which can be registered directly
+     * by {@link Cloudlet#addOnFinishListener(org.cloudsimplus.listeners.EventListener)}.
+     *
+     * <p>Since it's notified before the Cloudlet gets its final status and finish time,
+     * the Cloudlet is exported as {@link Cloudlet.Status#SUCCESS} with the time of the event.</p>
+     *
+     * @param info information about the finished Cloudlet
+     */
+    public void onCloudletFinish(final CloudletVmEventInfo info) {
+        final Cloudlet cloudlet = info.getCloudlet();
+        write(cloudlet.getId(), Cloudlet.Status.SUCCESS, cloudlet.getExecStartTime(),
+              info.getTime(), info.getTime() - cloudlet.getExecStartTime());
+    }
+
+    /**
+     * Exports the results of a Cloudlet which was already returned to the broker.
+     *
+     * @param cloudlet the finished Cloudlet
+     */
+    public void write(final Cloudlet cloudlet) {
+        write(cloudlet.getId(), cloudlet.getStatus(), cloudlet.getExecStartTime(),
+              cloudlet.getFinishTime(), cloudlet.getActualCpuTime());
+    }
+
+    /**
+     * Exports the results of a finished Cloudlet from its raw values.
+     *
+     * @param id the Cloudlet id
+     * @param status the Cloudlet status
+     * @param execStartTime the time the Cloudlet started executing
+     * @param finishTime the time the Cloudlet finished
+     * @param actualCpuTime the time the Cloudlet used the CPU
+     */
+    public void write(
+        final long id, final Cloudlet.Status status, final double execStartTime,
+        final double finishTime, final double actualCpuTime)
+    {
+        if(block == null || rowInBlock == blockRows) {
+            nextBlock();
+        }
+
+        final int longColumnBytes = blockRows * Long.BYTES;
+        final int offset = rowInBlock * Long.BYTES;
+        block.putLong(offset, id);
+        block.putDouble(longColumnBytes + offset, execStartTime);
+        block.putDouble(2 * longColumnBytes + offset, finishTime);
+        block.putDouble(3 * longColumnBytes + offset, actualCpuTime);
+        block.putDouble(4 * longColumnBytes + offset, finishTime - execStartTime);
+        block.putInt(5 * longColumnBytes + rowInBlock * Integer.BYTES, status.ordinal());
+
+        rowInBlock++;
+        rows++;
+    }
+
+    private void nextBlock() {
+        blockIndex++;
+        rowInBlock = 0;
+        header.putLong(ROW_COUNT_POSITION, rows);
+        try {
+            block = map(HEADER_BYTES + blockIndex * blockBytes(blockRows), blockBytes(blockRows));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long blockBytes(final int blockRows) {
+        return (long) blockRows * ROW_BYTES;
+    }
+
+    /**
+     * @return the number of rows in each block of the file
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * @return the number of rows written so far
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Writes the final row count into the header and closes the file.
+     */
+    @Override
+    public void close() {
+        header.putLong(ROW_COUNT_POSITION, rows);
+        header.force();
+        if(block != null) {
+            block.force();
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.cloudsimplus.results;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.cloudsimplus.results.CloudletColumnarExporter.*;
+
+/**
+ * Loads the columns of a file written by a {@link CloudletColumnarExporter}
+ * into primitive arrays, for analysing Cloudlet results without creating Cloudlet objects.
+ */
+public final class CloudletColumnarReader {
+    private final long[] ids;
+    private final int[] statusOrdinals;
+    private final double[] execStartTimes;
+    private final double[] finishTimes;
+    private final double[] actualCpuTimes;
+    private final double[] totalTimes;
+
+    private CloudletColumnarReader(final int rows) {
+        ids = new long[rows];
+        statusOrdinals = new int[rows];
+        execStartTimes = new double[rows];
+        finishTimes = new double[rows];
+        actualCpuTimes = new double[rows];
+        totalTimes = new double[rows];
+    }
+
+    /**
+     * Reads all the columns of a columnar Cloudlet results file.
+     *
+     * @param file the file to read
+     * @return a reader holding the loaded columns
+     * @throws IllegalArgumentException if the file is not a columnar Cloudlet results file,
+     *                                  its header is invalid or the file is shorter than the header says
+     */
+    public static CloudletColumnarReader read(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException(file + " is not a columnar Cloudlet results file.");
+            }
+
+            final MappedByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IllegalArgumentException(file + " is not a columnar Cloudlet results file.");
+            }
+
+            final int blockRows = header.getInt(8);
+            final long rowCount = header.getLong(ROW_COUNT_POSITION);
+            if(blockRows <= 0 || blockRows > MAX_BLOCK_ROWS) {
+                throw new IllegalArgumentException(file + " has an invalid number of rows per block: " + blockRows);
+            }
+
+            if(rowCount < 0 || rowCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(file + " has an invalid row count or more rows than can be loaded into arrays: " + rowCount);
+            }
+
+            final long blocks = (rowCount + blockRows - 1) / blockRows;
+            if(channel.size() < HEADER_BYTES + blocks * blockBytes(blockRows)) {
+                throw new IllegalArgumentException(file + " is truncated: it's shorter than its " + rowCount + " rows.");
+            }
+
+            final CloudletColumnarReader reader = new CloudletColumnarReader((int) rowCount);
+            final int longColumnBytes = blockRows * Long.BYTES;
+            int row = 0;
+            for (long blockIndex = 0; row < rowCount; blockIndex++) {
+                final MappedByteBuffer block = map(channel, HEADER_BYTES + blockIndex * blockBytes(blockRows), blockBytes(blockRows));
+                final int rowsInBlock = (int) Math.min(blockRows, rowCount - row);
+                for (int i = 0; i < rowsInBlock; i++, row++) {
+                    final int offset = i * Long.BYTES;
+                    reader.ids[row] = block.getLong(offset);
+                    reader.execStartTimes[row] = block.getDouble(longColumnBytes + offset);
+                    reader.finishTimes[row] = block.getDouble(2 * longColumnBytes + offset);
+                    reader.actualCpuTimes[row] = block.getDouble(3 * longColumnBytes + offset);
+                    reader.totalTimes[row] = block.getDouble(4 * longColumnBytes + offset);
+                    reader.statusOrdinals[row] = block.getInt(5 * longColumnBytes + i * Integer.BYTES);
+                }
+            }
+
+            return reader;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(final FileChannel channel, final long position, final long size) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    public int getRowCount() {
+        return ids.length;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public int[] getStatusOrdinals() {
+        return statusOrdinals;
+    }
+
+    /**
+     * Gets the status of the Cloudlet at a given row.
+     *
+     * @param row the row index
+     * @return the Cloudlet status
+     */
+    public Cloudlet.Status getStatus(final int row) {
+        return Cloudlet.Status.values()[statusOrdinals[row]];
+    }
+
+    public double[] getExecStartTimes() {
+        return execStartTimes;
+    }
+
+    public double[] getFinishTimes() {
+        return finishTimes;
+    }
+
+    public double[] getActualCpuTimes() {
+        return actualCpuTimes;
+    }
+
+    public double[] getTotalTimes() {
+        return totalTimes;
+    }
+}
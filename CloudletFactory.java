@@ -0,0 +1,20 @@
+package org.cloudsimplus.workload;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+
+/**
+ * Creates the Cloudlets for arrivals produced by an {@link ArrivalSource},
+ * which enables a scenario to define the Cloudlet class, utilization models and listeners
+ * of Cloudlets created by an {@link ArrivalProcessEngine}.
+ */
+@FunctionalInterface
+public interface CloudletFactory {
+    /**
+     * Creates a Cloudlet.
+     *
+     * @param length the length (in MI) of the Cloudlet
+     * @param pes the number of PEs of the Cloudlet
+     * @return the new Cloudlet
+     */
+    Cloudlet create(long length, int pes);
+}
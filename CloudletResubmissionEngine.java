@@ -0,0 +1,199 @@
+package org.cloudbus.cloudsim.brokers;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Resubmits failed Cloudlets to a {@link DatacenterBroker} in batches,
+ * preventing resubmission storms from flooding the event queue after a Host crash.
+ *
+ * <p>Failed Cloudlets are {@link #offer(Cloudlet, double) offered} to the engine,
+ * which holds them for an exponential backoff time (that doubles at each retry of the same Cloudlet)
+ * and discards them after a maximum number of retries.
+ * A Cloudlet which is already pending is not enqueued again.
+ * Every time the engine is {@link #flush(double) flushed}, all pending Cloudlets whose backoff
+ * has expired are sent to the broker in a single submission.
+ * This way, calling flush once per time window produces at most one submission per window.</p>
+ */
+public class CloudletResubmissionEngine {
+    private final DatacenterBroker broker;
+    private final double baseBackoff;
+    private final double maxBackoff;
+    private final int maxRetries;
+
+    private final Map<Cloudlet, Resubmission> resubmissions = new IdentityHashMap<>();
+    private final PriorityQueue<Resubmission> pendingQueue =
+        new PriorityQueue<>(Comparator.comparingDouble(Resubmission::getDueTime).thenComparingLong(Resubmission::getSequence));
+
+    private long sequence;
+    private long submissions;
+    private long resubmittedCloudlets;
+    private long duplicatedOffers;
+    private long abandonedCloudlets;
+
+    /**
+     * Creates a resubmission engine.
+     *
+     * @param broker the broker to resubmit failed Cloudlets to
+     * @param baseBackoff the time (in seconds) a Cloudlet waits before its first resubmission,
+     *                    which is doubled at each new retry
+     * @param maxBackoff the maximum time (in seconds) a Cloudlet waits before being resubmitted
+     * @param maxRetries the maximum number of times the same Cloudlet can be resubmitted
+     */
+    public CloudletResubmissionEngine(
+        final DatacenterBroker broker, final double baseBackoff,
+        final double maxBackoff, final int maxRetries)
+    {
+        if(baseBackoff < 0 || maxBackoff < baseBackoff) {
+            throw new IllegalArgumentException("Backoff times must be non-negative and maxBackoff cannot be lower than baseBackoff.");
+        }
+
+        if(maxRetries < 0) {
+            throw new IllegalArgumentException("The maximum number of retries cannot be negative.");
+        }
+
+        this.broker = Objects.requireNonNull(broker);
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Offers a failed Cloudlet to be resubmitted after its backoff time.
+     *
+     * @param cloudlet the failed Cloudlet
+     * @param time the current simulation time
+     * @return true if the Cloudlet was enqueued for resubmission;
+     * false if it's already pending or its retry budget is exhausted
+     */
+    public boolean offer(final Cloudlet cloudlet, final double time) {
+        final Resubmission resubmission = resubmissions.computeIfAbsent(cloudlet, Resubmission::new);
+        if(resubmission.pending) {
+            duplicatedOffers++;
+            return false;
+        }
+
+        if(resubmission.retries >= maxRetries) {
+            if(!resubmission.abandoned) {
+                resubmission.abandoned = true;
+                abandonedCloudlets++;
+            }
+
+            return false;
+        }
+
+        resubmission.pending = true;
+        resubmission.dueTime = time + backoff(resubmission.retries);
+        resubmission.sequence = sequence++;
+        pendingQueue.add(resubmission);
+        return true;
+    }
+
+    private double backoff(final int retries) {
+        return Math.min(maxBackoff, baseBackoff * Math.pow(2, retries));
+    }
+
+    /**
+     * Submits all pending Cloudlets whose backoff time has expired
+     * to the broker, using a single submission.
+     *
+     * @param time the current simulation time
+     * @return the list of resubmitted Cloudlets (which may be empty)
+     */
+    public List<Cloudlet> flush(final double time) {
+        final List<Cloudlet> batch = new ArrayList<>();
+        while(!pendingQueue.isEmpty() && pendingQueue.peek().dueTime <= time) {
+            final Resubmission resubmission = pendingQueue.poll();
+            resubmission.pending = false;
+            resubmission.retries++;
+            batch.add(resubmission.cloudlet);
+        }
+
+        if(!batch.isEmpty()) {
+            broker.submitCloudletList(batch);
+            submissions++;
+            resubmittedCloudlets += batch.size();
+        }
+
+        return batch;
+    }
+
+    /**
+     * Discards the retry state of a Cloudlet (for instance, after it finishes successfully),
+     * so that the engine just keeps state for Cloudlets which may still fail.
+     *
+     * @param cloudlet the Cloudlet to forget
+     */
+    public void forget(final Cloudlet cloudlet) {
+        final Resubmission resubmission = resubmissions.remove(cloudlet);
+        if(resubmission != null && resubmission.pending) {
+            pendingQueue.remove(resubmission);
+        }
+    }
+
+    /**
+     * @return the number of Cloudlets waiting for their backoff time to expire
+     */
+    public int getPendingCloudlets() {
+        return pendingQueue.size();
+    }
+
+    /**
+     * @return the number of submissions sent to the broker
+     */
+    public long getSubmissions() {
+        return submissions;
+    }
+
+    /**
+     * @return the total number of Cloudlets resubmitted, counting each retry
+     */
+    public long getResubmittedCloudlets() {
+        return resubmittedCloudlets;
+    }
+
+    /**
+     * @return the number of offers ignored because the Cloudlet was already pending
+     */
+    public long getDuplicatedOffers() {
+        return duplicatedOffers;
+    }
+
+    /**
+     * @return the number of Cloudlets which exhausted their retry budget
+     */
+    public long getAbandonedCloudlets() {
+        return abandonedCloudlets;
+    }
+
+    /**
+     * The resubmission state of a Cloudlet which has failed at least once.
+     */
+    private static final class Resubmission {
+        private final Cloudlet cloudlet;
+        private int retries;
+        private double dueTime;
+        private long sequence;
+        private boolean pending;
+        private boolean abandoned;
+
+        private Resubmission(final Cloudlet cloudlet) {
+            this.cloudlet = cloudlet;
+        }
+
+        private double getDueTime() {
+            return dueTime;
+        }
+
+        private long getSequence() {
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.cloudsimplus.results;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the results of finished Cloudlets (id, VM id, arrival, execution start and finish times,
+ * actual CPU time and final status) as a struct of primitive arrays, one array for each field.
+ *
+ * <p>Results are captured when each Cloudlet finishes, so that table builders and SLA evaluators
+ * can read them from here instead of from the broker's finished list. Each row keeps the results of
+ * one run, even if the Cloudlet object is later reused for another arrival
+ * (such as by a {@link org.cloudsimplus.workload.PooledCloudletFactory}). Each stored row takes 49 bytes.</p>
+ *
+ * <p>The store doesn't make the finished Cloudlet objects collectable:
+ * the broker still keeps every Cloudlet in its submitted, created and finished lists
+ * until the end of the simulation.</p>
+ */
+public class CloudletResultStore {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final Cloudlet.Status[] STATUSES = Cloudlet.Status.values();
+
+    private int size;
+    private long[] ids;
+    private long[] vmIds;
+    private double[] arrivalTimes;
+    private double[] execStartTimes;
+    private double[] finishTimes;
+    private double[] actualCpuTimes;
+    private byte[] statusOrdinals;
+
+    public CloudletResultStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a store with an initial capacity, which grows as needed.
+     *
+     * @param initialCapacity the number of rows to initially allocate
+     */
+    public CloudletResultStore(final int initialCapacity) {
+        final int capacity = Math.max(1, initialCapacity);
+        ids = new long[capacity];
+        vmIds = new long[capacity];
+        arrivalTimes = new double[capacity];
+        execStartTimes = new double[capacity];
+        finishTimes = new double[capacity];
+        actualCpuTimes = new double[capacity];
+        statusOrdinals = new byte[capacity];
+    }
+
+    /**
+     * Registers a listener into a Cloudlet so that its results are stored when it finishes.
+     *
+     * @param cloudlet the Cloudlet to track
+     * @return the given Cloudlet
+     */
+    public Cloudlet track(final Cloudlet cloudlet) {
+        cloudlet.addOnFinishListener(this::onCloudletFinish);
+        return cloudlet;
+    }
+
+    /**
+     * A listener for the finish of Cloudlets, which can be registered directly
+     * by {@link Cloudlet#addOnFinishListener(org.cloudsimplus.listeners.EventListener)}.
+     *
+     * <p>The listener runs before the Cloudlet scheduler sets the Cloudlet status and finish time,
+     * so the row is stored as {@link Cloudlet.Status#SUCCESS} and finished at the time of the event.</p>
+     *
+     * @param info information about the finished Cloudlet
+     */
+    public void onCloudletFinish(final CloudletVmEventInfo info) {
+        final Cloudlet cloudlet = info.getCloudlet();
+        record(cloudlet, Cloudlet.Status.SUCCESS, info.getTime(), info.getTime() - cloudlet.getExecStartTime());
+    }
+
+    /**
+     * Stores the results of a Cloudlet which was already returned to the broker.
+     *
+     * @param cloudlet the finished Cloudlet
+     * @return the index of the row where the results were stored
+     */
+    public int record(final Cloudlet cloudlet) {
+        return record(cloudlet, cloudlet.getStatus(), cloudlet.getFinishTime(), cloudlet.getActualCpuTime());
+    }
+
+    private int record(
+        final Cloudlet cloudlet, final Cloudlet.Status status,
+        final double finishTime, final double actualCpuTime)
+    {
+        ensureCapacity(size + 1);
+        final int row = size++;
+        ids[row] = cloudlet.getId();
+        vmIds[row] = cloudlet.getVm().getId();
+        arrivalTimes[row] = cloudlet.getLastDatacenterArrivalTime();
+        execStartTimes[row] = cloudlet.getExecStartTime();
+        finishTimes[row] = finishTime;
+        actualCpuTimes[row] = actualCpuTime;
+        statusOrdinals[row] = (byte) status.ordinal();
+        return row;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if(capacity <= ids.length) {
+            return;
+        }
+
+        final int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        vmIds = Arrays.copyOf(vmIds, newCapacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, newCapacity);
+        execStartTimes = Arrays.copyOf(execStartTimes, newCapacity);
+        finishTimes = Arrays.copyOf(finishTimes, newCapacity);
+        actualCpuTimes = Arrays.copyOf(actualCpuTimes, newCapacity);
+        statusOrdinals = Arrays.copyOf(statusOrdinals, newCapacity);
+    }
+
+    /**
+     * @return the number of stored rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a list with the indexes of all stored rows (from 0 to {@link #size()} - 1),
+     * which can be given to a table builder whose columns read values by row index.
+     * The list doesn't store the indexes, just computes them.
+     *
+     * @return the list of row indexes
+     */
+    public List<Integer> rows() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(final int index) {
+                if(index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Row " + index + " doesn't exist. Size: " + size);
+                }
+
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public long getId(final int row) {
+        return ids[row];
+    }
+
+    public long getVmId(final int row) {
+        return vmIds[row];
+    }
+
+    public double getArrivalTime(final int row) {
+        return arrivalTimes[row];
+    }
+
+    public double getExecStartTime(final int row) {
+        return execStartTimes[row];
+    }
+
+    public double getFinishTime(final int row) {
+        return finishTimes[row];
+    }
+
+    public double getActualCpuTime(final int row) {
+        return actualCpuTimes[row];
+    }
+
+    public Cloudlet.Status getStatus(final int row) {
+        return STATUSES[statusOrdinals[row]];
+    }
+
+    /**
+     * Gets the time a Cloudlet took from its execution start until its finish.
+     *
+     * @param row the row index
+     * @return the total time
+     */
+    public double getTotalTime(final int row) {
+        return finishTimes[row] - execStartTimes[row];
+    }
+
+    /**
+     * Gets the time a Cloudlet took from its arrival at the Datacenter until its finish.
+     *
+     * @param row the row index
+     * @return the response time
+     */
+    public double getResponseTime(final int row) {
+        return finishTimes[row] - arrivalTimes[row];
+    }
+
+    /**
+     * Writes all stored rows into a columnar exporter.
+     *
+     * @param exporter the exporter to write the rows to
+     */
+    public void exportTo(final CloudletColumnarExporter exporter) {
+        for (int row = 0; row < size; row++) {
+            exporter.write(ids[row], getStatus(row), execStartTimes[row], finishTimes[row], actualCpuTimes[row]);
+        }
+    }
+
+    /**
+     * Removes all stored rows, keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
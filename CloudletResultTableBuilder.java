@@ -0,0 +1,56 @@
+package org.cloudsimplus.builders.tables;
+
+import org.cloudsimplus.results.CloudletResultStore;
+
+import static org.cloudsimplus.builders.tables.CloudletTableBuilderSLA.roundTime;
+
+/**
+ * Builds a table with the SLA related results of Cloudlets, reading them from a
+ * {@link CloudletResultStore} instead of from Cloudlet objects.
+ * It has the same columns of the {@link CloudletTableBuilderSLA},
+ * plus the VM and arrival time of each Cloudlet.
+ */
+public class CloudletResultTableBuilder extends TableBuilderAbstract<Integer> {
+    private static final String TIME_FORMAT = "%.0f";
+    private static final String SECONDS = "Seconds";
+
+    private final CloudletResultStore store;
+
+    public CloudletResultTableBuilder(final CloudletResultStore store, final Table table) {
+        super(store.rows(), table);
+        this.store = store;
+    }
+
+    public CloudletResultTableBuilder(final CloudletResultStore store) {
+        super(store.rows());
+        this.store = store;
+    }
+
+    /**
+     * Creates the columns, which is called by the super constructor before the store is set.
+     * That is why the data functions are lambdas which only read the store when the table is built,
+     * instead of method references bound to the store.
+     */
+    @Override
+    protected void createTableColumns() {
+        final String ID = "ID";
+        addColumnDataFunction(getTable().addColumn("Cloudlet", ID), row -> store.getId(row));
+        addColumnDataFunction(getTable().addColumn("Status "), row -> store.getStatus(row).name());
+        addColumnDataFunction(getTable().addColumn("VM", ID), row -> store.getVmId(row));
+
+        TableColumn col = getTable().addColumn("Arrival", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, row -> store.getArrivalTime(row));
+
+        col = getTable().addColumn("StartTime", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, row -> store.getExecStartTime(row));
+
+        col = getTable().addColumn("FinishTime", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, row -> roundTime(store.getExecStartTime(row), store.getFinishTime(row)));
+
+        col = getTable().addColumn("ExecTime", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, row -> roundTime(store.getExecStartTime(row), store.getActualCpuTime(row)));
+
+        col = getTable().addColumn("Total Time", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, row -> roundTime(store.getExecStartTime(row), store.getTotalTime(row)));
+    }
+}
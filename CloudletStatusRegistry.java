@@ -0,0 +1,104 @@
+package org.cloudbus.cloudsim.cloudlets;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet.Status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Indexes {@link ObservableCloudletSimple} objects by their current {@link Status},
+ * moving a Cloudlet between indexes when its status changes.
+ *
+ * <p>Getting the Cloudlets in a given status (such as the failed ones)
+ * costs time proportional to the number of Cloudlets in that status,
+ * not to the number of Cloudlets ever created.</p>
+ *
+ * <p>Cloudlets are indexed by identity, since their ids may change
+ * when they are submitted to a broker. This way, the Cloudlets
+ * returned for a given status are in no particular order.</p>
+ */
+public class CloudletStatusRegistry {
+    private final Map<Status, Set<Cloudlet>> cloudletsByStatus = new EnumMap<>(Status.class);
+    private final List<BiConsumer<Cloudlet, Status>> onStatusChangeListeners = new ArrayList<>();
+
+    public CloudletStatusRegistry() {
+        for (final Status status : Status.values()) {
+            cloudletsByStatus.put(status, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+    }
+
+    /**
+     * Adds a Cloudlet to the registry, indexing it by its current status
+     * and keeping it indexed as the status changes.
+     *
+     * @param cloudlet the Cloudlet to register
+     * @return the given Cloudlet
+     */
+    public ObservableCloudletSimple register(final ObservableCloudletSimple cloudlet) {
+        cloudletsByStatus.get(cloudlet.getStatus()).add(cloudlet);
+        cloudlet.addOnStatusChangeListener(this::onStatusChange);
+        return cloudlet;
+    }
+
+    private void onStatusChange(final Cloudlet cloudlet, final Status previousStatus) {
+        cloudletsByStatus.get(previousStatus).remove(cloudlet);
+        cloudletsByStatus.get(cloudlet.getStatus()).add(cloudlet);
+        for (final BiConsumer<Cloudlet, Status> listener : onStatusChangeListeners) {
+            listener.accept(cloudlet, previousStatus);
+        }
+    }
+
+    /**
+     * Adds a listener to be notified when any registered Cloudlet changes its status,
+     * after the registry indexes are updated.
+     *
+     * @param listener the listener to add, which receives the Cloudlet and its previous status
+     * @return this registry
+     */
+    public CloudletStatusRegistry addOnStatusChangeListener(final BiConsumer<Cloudlet, Status> listener) {
+        onStatusChangeListeners.add(Objects.requireNonNull(listener));
+        return this;
+    }
+
+    /**
+     * Gets a read-only view of the registered Cloudlets which are currently in a given status.
+     *
+     * @param status the status to get the Cloudlets for
+     * @return a view of the Cloudlets in that status, which reflects later status changes
+     */
+    public Set<Cloudlet> getCloudlets(final Status status) {
+        return Collections.unmodifiableSet(cloudletsByStatus.get(status));
+    }
+
+    /**
+     * Gets the registered Cloudlets which have failed, for any reason.
+     *
+     * @return a new list with the Cloudlets in {@link Status#FAILED}
+     * or {@link Status#FAILED_RESOURCE_UNAVAILABLE} status
+     */
+    public List<Cloudlet> getFailedCloudlets() {
+        final Set<Cloudlet> failed = cloudletsByStatus.get(Status.FAILED);
+        final Set<Cloudlet> unavailable = cloudletsByStatus.get(Status.FAILED_RESOURCE_UNAVAILABLE);
+        final List<Cloudlet> list = new ArrayList<>(failed.size() + unavailable.size());
+        list.addAll(failed);
+        list.addAll(unavailable);
+        return list;
+    }
+
+    /**
+     * Gets the number of registered Cloudlets which are currently in a given status.
+     *
+     * @param status the status to count the Cloudlets for
+     * @return the number of Cloudlets in that status
+     */
+    public int count(final Status status) {
+        return cloudletsByStatus.get(status).size();
+    }
+}
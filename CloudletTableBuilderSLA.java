@@ -30,25 +30,25 @@ public class CloudletTableBuilderSLA extends TableBuilderAbstract<Cloudlet>{
         addColumnDataFunction(col, Cloudlet::getExecStartTime);
 
         col = getTable().addColumn("FinishTime", SECONDS).setFormat(TIME_FORMAT);
-        addColumnDataFunction(col, cl -> roundTime(cl, cl.getFinishTime()));
+        addColumnDataFunction(col, cl -> roundTime(cl.getExecStartTime(), cl.getFinishTime()));
 
         col = getTable().addColumn("ExecTime", SECONDS).setFormat(TIME_FORMAT);
-        addColumnDataFunction(col, cl -> roundTime(cl, cl.getActualCpuTime()));
+        addColumnDataFunction(col, cl -> roundTime(cl.getExecStartTime(), cl.getActualCpuTime()));
 
         col = getTable().addColumn("Total Time", SECONDS).setFormat(TIME_FORMAT);
-        addColumnDataFunction(col, cl-> roundTime(cl, cl.getFinishTime() - cl.getExecStartTime()));
+        addColumnDataFunction(col, cl-> roundTime(cl.getExecStartTime(), cl.getFinishTime() - cl.getExecStartTime()));
     }
 
-    private double roundTime(final Cloudlet cloudlet, final double time) {
+    static double roundTime(final double execStartTime, final double time) {
 
         /*If the given time minus the start time is less than 1,
          * it means the execution time was less than 1 second.
          * This way, it can't be round.*/
-        if(time - cloudlet.getExecStartTime() < 1){
+        if(time - execStartTime < 1){
             return time;
         }
 
-        final double startFraction = cloudlet.getExecStartTime() - (int) cloudlet.getExecStartTime();
+        final double startFraction = execStartTime - (int) execStartTime;
         return Math.round(time - startFraction);
     }
 }
@@ -0,0 +1,148 @@
+package org.cloudsimplus.builders.tables;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Formatter;
+
+import static org.cloudsimplus.builders.tables.CloudletTableBuilderSLA.roundTime;
+
+/**
+ * Writes the same columns as the {@link CloudletTableBuilderSLA}, but one row at a time,
+ * as each tracked Cloudlet finishes.
+ *
+ * <p>Different from a {@link TableBuilderAbstract}, which needs the whole list of finished Cloudlets
+ * before building the table, rows are appended to a buffered writer and no Cloudlet is kept.
+ * Therefore, the memory used for reporting stays constant regardless of the number of Cloudlets.</p>
+ */
+public class CloudletTableStreamSLA implements Closeable, Flushable {
+    private static final String HEADER_FORMAT = "%11s|%21s|%11s|%11s|%11s|%11s%n";
+    private static final String ROW_FORMAT = "%11d|%21s|%11.0f|%11.0f|%11.0f|%11.0f%n";
+    private static final String SECONDS = "Seconds";
+
+    private final Writer writer;
+    private final Formatter formatter;
+    private long rows;
+
+    /**
+     * Creates a streaming table which writes rows into a file.
+     *
+     * @param file the file to write the table to (which is overwritten if it exists)
+     */
+    public CloudletTableStreamSLA(final Path file) {
+        this(newFileWriter(file));
+    }
+
+    /**
+     * Creates a streaming table which writes rows into a given writer.
+     *
+     * @param writer the writer to append rows to (which is buffered if it isn't already)
+     */
+    public CloudletTableStreamSLA(final Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+        this.formatter = new Formatter(this.writer);
+        formatter.format(HEADER_FORMAT, "Cloudlet", "Status", "StartTime", "FinishTime", "ExecTime", "Total Time");
+        formatter.format(HEADER_FORMAT, "ID", "", SECONDS, SECONDS, SECONDS, SECONDS);
+        checkError();
+    }
+
+    private static Writer newFileWriter(final Path file) {
+        try {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Registers a listener into a Cloudlet so that its row is written when it finishes.
+     *
+     * @param cloudlet the Cloudlet to track
+     * @return the given Cloudlet
+     */
+    public Cloudlet track(final Cloudlet cloudlet) {
+        cloudlet.addOnFinishListener(this::onCloudletFinish);
+        return cloudlet;
+    }
+
+    /**
+     * A listener for the finish of Cloudlets, which can be registered directly
+     * by {@link Cloudlet#addOnFinishListener(org.cloudsimplus.listeners.EventListener)}.
+     *
+     * <p>The row is written from the event time, since the listener is notified
+     * before the Cloudlet scheduler sets the {@link Cloudlet.Status#SUCCESS} status and the finish time.</p>
+     *
+     * @param info information about the finished Cloudlet
+     */
+    public void onCloudletFinish(final CloudletVmEventInfo info) {
+        final Cloudlet cloudlet = info.getCloudlet();
+        write(cloudlet.getId(), Cloudlet.Status.SUCCESS, cloudlet.getExecStartTime(),
+              info.getTime(), info.getTime() - cloudlet.getExecStartTime());
+    }
+
+    /**
+     * Appends the row of a Cloudlet which was already returned to the broker.
+     *
+     * @param cloudlet the finished Cloudlet
+     */
+    public void write(final Cloudlet cloudlet) {
+        write(cloudlet.getId(), cloudlet.getStatus(), cloudlet.getExecStartTime(),
+              cloudlet.getFinishTime(), cloudlet.getActualCpuTime());
+    }
+
+    /**
+     * Appends the row of a finished Cloudlet from its raw values.
+     *
+     * @param id the Cloudlet id
+     * @param status the Cloudlet status
+     * @param execStartTime the time the Cloudlet started executing
+     * @param finishTime the time the Cloudlet finished
+     * @param actualCpuTime the time the Cloudlet used the CPU
+     */
+    public void write(
+        final long id, final Cloudlet.Status status, final double execStartTime,
+        final double finishTime, final double actualCpuTime)
+    {
+        formatter.format(ROW_FORMAT, id, status.name(), execStartTime,
+            roundTime(execStartTime, finishTime),
+            roundTime(execStartTime, actualCpuTime),
+            roundTime(execStartTime, finishTime - execStartTime));
+        rows++;
+        checkError();
+    }
+
+    private void checkError() {
+        final IOException error = formatter.ioException();
+        if(error != null) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * @return the number of rows written so far
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void flush() {
+        formatter.flush();
+        checkError();
+    }
+
+    @Override
+    public void close() {
+        formatter.close();
+        checkError();
+    }
+}
@@ -0,0 +1,346 @@
+package org.cloudbus.cloudsim.brokers;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.cloudbus.cloudsim.vms.VmWorkload.capacity;
+import static org.cloudbus.cloudsim.vms.VmWorkload.remainingWork;
+import static org.cloudbus.cloudsim.vms.VmWorkload.work;
+
+/**
+ * A {@link DatacenterBrokerSimple} that maps each Cloudlet to the running VM where it's predicted
+ * to finish first, which is where it's most likely to meet the maximum task completion time of an SLA.
+ * Cloudlets bound to a VM are still sent to that VM.
+ *
+ * <p>The broker estimates the drain time of each VM, that is, the time the work of the Cloudlets
+ * mapped to it will finish, taking the VM total MIPS capacity (MIPS of each PE times the number of PEs)
+ * as fluid capacity. The predicted completion time of a Cloudlet in a VM is the VM drain time
+ * plus the Cloudlet work divided by the VM capacity.
+ * VMs are grouped by capacity, each group in an indexed min-heap ordered by drain time:
+ * inside a group, the VM which drains first is the one where the Cloudlet finishes first,
+ * so only the top of each heap needs to be compared. Selecting a VM and updating its
+ * drain time costs O(capacity groups + log VMs), where there are usually just a few groups.</p>
+ *
+ * <p>When a Cloudlet returns, the drain time of its VM is recomputed from the remaining work of the Cloudlets
+ * mapped to it which didn't return yet, correcting any prediction error.
+ * That includes Cloudlets which didn't reach the VM yet, such as ones with a submission delay.</p>
+ *
+ * <p>Cloudlets are placed even when the predicted completion time violates the SLA,
+ * since there is no better VM for them. Such placements are counted by {@link #getPredictedViolations()}.</p>
+ */
+public class DatacenterBrokerSla extends DatacenterBrokerSimple {
+    private final double maxTaskCompletionTime;
+
+    /**
+     * The heaps of running VMs, one for each VM capacity.
+     */
+    private final List<VmDrainHeap> heaps = new ArrayList<>();
+    private final Map<Vm, VmDrainHeap> heapByVm = new IdentityHashMap<>();
+
+    /**
+     * The Cloudlets mapped to each VM which didn't return yet.
+     */
+    private Map<Vm, Set<Cloudlet>> mappedCloudlets = new IdentityHashMap<>();
+    private boolean vmsChanged = true;
+
+    /**
+     * The number of running VMs when the {@link #heaps} were built, to detect when VMs are created or destroyed.
+     */
+    private int heapVmListSize;
+    private long predictedViolations;
+
+    /**
+     * Creates a broker.
+     *
+     * @param simulation the simulation the broker belongs to
+     * @param maxTaskCompletionTime the maximum time (in seconds) a Cloudlet may take to complete,
+     *                              according to the SLA
+     */
+    public DatacenterBrokerSla(final CloudSim simulation, final double maxTaskCompletionTime) {
+        super(simulation);
+        this.maxTaskCompletionTime = maxTaskCompletionTime;
+    }
+
+    @Override
+    protected Vm defaultVmMapper(final Cloudlet cloudlet) {
+        final double clock = getSimulation().clock();
+        if(cloudlet.isBoundToVm()) {
+            final Vm vm = cloudlet.getVm();
+            final VmDrainHeap heap = heapByVm.get(vm);
+            if(heap != null) {
+                heap.update(vm, Math.max(clock, heap.getDrainTime(vm)) + work(cloudlet) / capacity(vm));
+            }
+
+            addMappedCloudlet(vm, cloudlet);
+            return vm;
+        }
+
+        final List<Vm> vms = getVmExecList();
+        if(vmsChanged || heapVmListSize != vms.size() || isAnyHeapTopFailed()) {
+            rebuildHeaps(vms, clock);
+        }
+
+        VmDrainHeap bestHeap = null;
+        double bestCompletionTime = Double.MAX_VALUE;
+        for (final VmDrainHeap heap : heaps) {
+            final double completionTime = completionTime(cloudlet, heap.peek(), heap.peekDrainTime(), clock);
+            if(completionTime < bestCompletionTime) {
+                bestCompletionTime = completionTime;
+                bestHeap = heap;
+            }
+        }
+
+        if(bestHeap == null) {
+            return Vm.NULL;
+        }
+
+        if(bestCompletionTime - clock > maxTaskCompletionTime) {
+            predictedViolations++;
+        }
+
+        final Vm vm = bestHeap.peek();
+        bestHeap.updateTop(Math.max(clock, bestHeap.peekDrainTime()) + work(cloudlet) / capacity(vm));
+        addMappedCloudlet(vm, cloudlet);
+        return vm;
+    }
+
+    /**
+     * Predicts the time a Cloudlet will finish if mapped to a VM with a given drain time.
+     * The Cloudlet can't finish before the time it would take to run alone into the VM.
+     */
+    private static double completionTime(final Cloudlet cloudlet, final Vm vm, final double drainTime, final double clock) {
+        final double drainedCompletionTime = Math.max(clock, drainTime) + work(cloudlet) / capacity(vm);
+        return Math.max(drainedCompletionTime, clock + cloudlet.getLength() / vm.getMips());
+    }
+
+    private boolean isAnyHeapTopFailed() {
+        for (final VmDrainHeap heap : heaps) {
+            if(heap.peek().isFailed()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void addMappedCloudlet(final Vm vm, final Cloudlet cloudlet) {
+        mappedCloudlets.computeIfAbsent(vm, v -> Collections.newSetFromMap(new IdentityHashMap<>())).add(cloudlet);
+    }
+
+    /**
+     * Rebuilds the heaps with the running VMs, grouping them by capacity,
+     * and forgets the Cloudlets mapped to VMs which aren't running anymore.
+     */
+    private void rebuildHeaps(final List<Vm> vms, final double clock) {
+        heaps.clear();
+        heapByVm.clear();
+        final Map<Vm, Set<Cloudlet>> runningMappedCloudlets = new IdentityHashMap<>();
+        for (final Vm vm : vms) {
+            if(vm.isFailed()) {
+                continue;
+            }
+
+            final Set<Cloudlet> cloudlets = mappedCloudlets.get(vm);
+            if(cloudlets != null) {
+                runningMappedCloudlets.put(vm, cloudlets);
+            }
+
+            final VmDrainHeap heap = findOrAddHeap(capacity(vm));
+            heap.add(vm, drainTime(vm, clock));
+            heapByVm.put(vm, heap);
+        }
+
+        mappedCloudlets = runningMappedCloudlets;
+        heapVmListSize = vms.size();
+        vmsChanged = false;
+    }
+
+    private VmDrainHeap findOrAddHeap(final double capacity) {
+        for (final VmDrainHeap heap : heaps) {
+            if(heap.capacity == capacity) {
+                return heap;
+            }
+        }
+
+        final VmDrainHeap heap = new VmDrainHeap(capacity);
+        heaps.add(heap);
+        return heap;
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        super.processEvent(evt);
+        if(evt.getTag() == CloudSimTags.VM_CREATE_ACK) {
+            vmsChanged = true;
+        } else if(evt.getTag() == CloudSimTags.CLOUDLET_RETURN) {
+            final Cloudlet cloudlet = (Cloudlet) evt.getData();
+            final Vm vm = cloudlet.getVm();
+            final Set<Cloudlet> cloudlets = mappedCloudlets.get(vm);
+            if(cloudlets != null) {
+                cloudlets.remove(cloudlet);
+            }
+
+            final VmDrainHeap heap = heapByVm.get(vm);
+            if(heap == null) {
+                return;
+            }
+
+            //A VM whose capacity changed (due to vertical scaling) is moved to another heap at the next mapping
+            if(heap.capacity != capacity(vm)) {
+                vmsChanged = true;
+            } else {
+                heap.update(vm, drainTime(vm, getSimulation().clock()));
+            }
+        }
+    }
+
+    /**
+     * Computes the time a VM will finish the remaining work of all the Cloudlets mapped to it.
+     */
+    private double drainTime(final Vm vm, final double clock) {
+        final Set<Cloudlet> cloudlets = mappedCloudlets.get(vm);
+        if(cloudlets == null) {
+            return clock;
+        }
+
+        double remainingWork = 0;
+        for (final Cloudlet cloudlet : cloudlets) {
+            remainingWork += remainingWork(cloudlet);
+        }
+
+        return clock + remainingWork / capacity(vm);
+    }
+
+    public double getMaxTaskCompletionTime() {
+        return maxTaskCompletionTime;
+    }
+
+    /**
+     * @return the number of Cloudlets mapped to a VM where they were predicted to violate the SLA
+     */
+    public long getPredictedViolations() {
+        return predictedViolations;
+    }
+
+    /**
+     * A binary min-heap of VMs with the same capacity ordered by drain time,
+     * which keeps the heap position of each VM to update its drain time in O(log VMs).
+     * Positions are stored in a mutable holder for each VM, so that moving VMs in the heap doesn't allocate objects.
+     */
+    private static final class VmDrainHeap {
+        private final double capacity;
+        private Vm[] vms = new Vm[4];
+        private double[] drainTimes = new double[4];
+        private int[][] positionHolders = new int[4][];
+        private final Map<Vm, int[]> positions = new IdentityHashMap<>();
+        private int size;
+
+        VmDrainHeap(final double capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(final Vm vm, final double drainTime) {
+            if(size == vms.length) {
+                vms = Arrays.copyOf(vms, size * 2);
+                drainTimes = Arrays.copyOf(drainTimes, size * 2);
+                positionHolders = Arrays.copyOf(positionHolders, size * 2);
+            }
+
+            vms[size] = vm;
+            drainTimes[size] = drainTime;
+            positionHolders[size] = new int[]{size};
+            positions.put(vm, positionHolders[size]);
+            siftUp(size++);
+        }
+
+        Vm peek() {
+            return vms[0];
+        }
+
+        double peekDrainTime() {
+            return drainTimes[0];
+        }
+
+        void updateTop(final double drainTime) {
+            drainTimes[0] = drainTime;
+            siftDown(0);
+        }
+
+        double getDrainTime(final Vm vm) {
+            return drainTimes[positions.get(vm)[0]];
+        }
+
+        void update(final Vm vm, final double drainTime) {
+            final int[] holder = positions.get(vm);
+            if(holder == null) {
+                return;
+            }
+
+            final int position = holder[0];
+            final double previous = drainTimes[position];
+            drainTimes[position] = drainTime;
+            if(drainTime < previous) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if(drainTimes[parent] <= drainTimes[i]) {
+                    return;
+                }
+
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                final int left = 2 * i + 1;
+                if(left >= size) {
+                    return;
+                }
+
+                final int right = left + 1;
+                final int smallest = right < size && drainTimes[right] < drainTimes[left] ? right : left;
+                if(drainTimes[i] <= drainTimes[smallest]) {
+                    return;
+                }
+
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(final int i, final int j) {
+            final Vm vm = vms[i];
+            vms[i] = vms[j];
+            vms[j] = vm;
+
+            final double drainTime = drainTimes[i];
+            drainTimes[i] = drainTimes[j];
+            drainTimes[j] = drainTime;
+
+            final int[] holder = positionHolders[i];
+            positionHolders[i] = positionHolders[j];
+            positionHolders[j] = holder;
+            positionHolders[i][0] = i;
+            positionHolders[j][0] = j;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.cloudbus.cloudsim.brokers;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link DatacenterBrokerSimple} that keeps at most a given number of outstanding Cloudlets
+ * (submitted to a datacenter but not returned yet) for each running VM.
+ *
+ * <p>Submitted Cloudlets are held in a FIFO backlog and are only passed to the broker when
+ * some running VM has a free slot, which happens when Cloudlets finish or new VMs are created.
+ * This way, the broker's waiting list and the Cloudlet schedulers of VMs don't grow without limit
+ * when Cloudlets arrive faster than they can be run.
+ * A Cloudlet with a submission delay is released as soon as there is a free slot, with the delay
+ * that remains until the time it was due, holding that slot while it doesn't arrive at the VM.
+ * That keeps the broker aware of every Cloudlet which is going to arrive, so that it doesn't destroy
+ * idle VMs while the backlog still has Cloudlets to run.</p>
+ *
+ * <p>Slots of VMs which fail or are destroyed are freed, since their Cloudlets won't return.</p>
+ *
+ * <p>This broker chooses the VM of each Cloudlet (in a round-robin fashion among VMs with free slots),
+ * ignoring any VM a Cloudlet was previously bound to. That also prevents resubmitted Cloudlets
+ * from being sent again to the VM they failed in.</p>
+ */
+public class DatacenterBrokerWindowed extends DatacenterBrokerSimple {
+    private final int maxOutstandingCloudletsPerVm;
+
+    private final ArrayDeque<Cloudlet> backlog = new ArrayDeque<>();
+
+    /**
+     * The time each Cloudlet in the {@link #backlog} is due, stored in the same order,
+     * as a ring buffer starting at {@link #dueTimesHead}.
+     */
+    private double[] dueTimes = new double[16];
+    private int dueTimesHead;
+
+    private final Map<Vm, int[]> outstandingCloudletsByVm = new IdentityHashMap<>();
+    private int lastVmIndex = -1;
+    private long releasedCloudlets;
+    private int maxBacklogSize;
+
+    /**
+     * Creates a broker.
+     *
+     * @param simulation the simulation the broker belongs to
+     * @param maxOutstandingCloudletsPerVm the maximum number of Cloudlets submitted to each VM
+     *                                     which haven't returned yet
+     */
+    public DatacenterBrokerWindowed(final CloudSim simulation, final int maxOutstandingCloudletsPerVm) {
+        super(simulation);
+        if(maxOutstandingCloudletsPerVm <= 0) {
+            throw new IllegalArgumentException("The maximum number of outstanding Cloudlets per VM must be greater than zero.");
+        }
+
+        this.maxOutstandingCloudletsPerVm = maxOutstandingCloudletsPerVm;
+    }
+
+    /**
+     * Adds Cloudlets to the backlog, releasing them to the broker as long as there are free slots in VMs.
+     *
+     * @param list the Cloudlets to submit
+     * @return this broker
+     */
+    @Override
+    public DatacenterBroker submitCloudletList(final List<? extends Cloudlet> list) {
+        final double clock = getSimulation().clock();
+        for (final Cloudlet cloudlet : list) {
+            addToBacklog(cloudlet, clock + cloudlet.getSubmissionDelay());
+        }
+
+        releaseBacklog();
+        return this;
+    }
+
+    private void addToBacklog(final Cloudlet cloudlet, final double dueTime) {
+        if(backlog.size() == dueTimes.length) {
+            final double[] grown = new double[dueTimes.length * 2];
+            for (int i = 0; i < backlog.size(); i++) {
+                grown[i] = dueTimes[(dueTimesHead + i) % dueTimes.length];
+            }
+
+            dueTimes = grown;
+            dueTimesHead = 0;
+        }
+
+        dueTimes[(dueTimesHead + backlog.size()) % dueTimes.length] = dueTime;
+        backlog.addLast(cloudlet);
+        maxBacklogSize = Math.max(maxBacklogSize, backlog.size());
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        /*Releases Cloudlets before the broker processes a returned Cloudlet,
+          so that it doesn't destroy VMs when its waiting list is empty but the backlog isn't.*/
+        if(evt.getTag() == CloudSimTags.CLOUDLET_RETURN) {
+            final int[] outstanding = outstandingCloudletsByVm.get(((Cloudlet) evt.getData()).getVm());
+            if(outstanding != null && outstanding[0] > 0) {
+                outstanding[0]--;
+            }
+
+            releaseBacklog();
+        }
+
+        super.processEvent(evt);
+
+        if(evt.getTag() == CloudSimTags.VM_CREATE_ACK) {
+            releaseBacklog();
+        }
+    }
+
+    /**
+     * Submits the Cloudlets at the head of the backlog to running VMs with free slots.
+     */
+    private void releaseBacklog() {
+        final List<Vm> vms = getVmExecList();
+        forgetStoppedVms(vms);
+        final double clock = getSimulation().clock();
+        List<Cloudlet> released = null;
+        int fullVms = 0;
+        while (!backlog.isEmpty() && fullVms < vms.size()) {
+            lastVmIndex = (lastVmIndex + 1) % vms.size();
+            final Vm vm = vms.get(lastVmIndex);
+            if(vm.isFailed()) {
+                fullVms++;
+                continue;
+            }
+
+            final int[] outstanding = outstandingCloudletsByVm.computeIfAbsent(vm, v -> new int[1]);
+            if(outstanding[0] >= maxOutstandingCloudletsPerVm) {
+                fullVms++;
+                continue;
+            }
+
+            final Cloudlet cloudlet = backlog.pollFirst();
+            final double dueTime = dueTimes[dueTimesHead];
+            dueTimesHead = (dueTimesHead + 1) % dueTimes.length;
+            cloudlet.setSubmissionDelay(Math.max(0, dueTime - clock));
+            cloudlet.setVm(vm);
+            outstanding[0]++;
+            fullVms = 0;
+            if(released == null) {
+                released = new ArrayList<>();
+            }
+
+            released.add(cloudlet);
+        }
+
+        if(released != null) {
+            releasedCloudlets += released.size();
+            super.submitCloudletList(released);
+        }
+    }
+
+    /**
+     * Frees the slots of VMs which failed or were destroyed,
+     * whose outstanding Cloudlets won't return anymore.
+     */
+    private void forgetStoppedVms(final List<Vm> runningVms) {
+        if(outstandingCloudletsByVm.isEmpty()) {
+            return;
+        }
+
+        if(outstandingCloudletsByVm.size() > runningVms.size() || isAnyVmFailed(runningVms)) {
+            final Set<Vm> running = Collections.newSetFromMap(new IdentityHashMap<>());
+            running.addAll(runningVms);
+            outstandingCloudletsByVm.keySet().removeIf(vm -> vm.isFailed() || !running.contains(vm));
+        }
+    }
+
+    private boolean isAnyVmFailed(final List<Vm> vms) {
+        for (final Vm vm : vms) {
+            if(vm.isFailed() && outstandingCloudletsByVm.containsKey(vm)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int getMaxOutstandingCloudletsPerVm() {
+        return maxOutstandingCloudletsPerVm;
+    }
+
+    /**
+     * @return the number of Cloudlets submitted to this broker which weren't released to VMs yet
+     */
+    public int getBacklogSize() {
+        return backlog.size();
+    }
+
+    /**
+     * @return the largest number of Cloudlets the backlog had at the same time
+     */
+    public int getMaxBacklogSize() {
+        return maxBacklogSize;
+    }
+
+    /**
+     * @return the number of Cloudlets released from the backlog to VMs
+     */
+    public long getReleasedCloudlets() {
+        return releasedCloudlets;
+    }
+}
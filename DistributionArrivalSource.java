@@ -0,0 +1,110 @@
+package org.cloudsimplus.workload;
+
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudbus.cloudsim.distributions.ExponentialDistr;
+import org.cloudbus.cloudsim.distributions.NormalDistr;
+
+import java.util.Objects;
+
+/**
+ * An {@link ArrivalSource} that samples the time between arrivals and the length of Cloudlets
+ * from pseudo random number distributions, up to a given time horizon.
+ * All Cloudlets require the same number of PEs.
+ */
+public class DistributionArrivalSource implements ArrivalSource {
+    private final ContinuousDistribution interArrivalTimes;
+    private final ContinuousDistribution lengths;
+    private final int pes;
+    private final double horizon;
+    private double lastTime;
+    private boolean finished;
+
+    /**
+     * Creates a source whose arrivals start at time zero.
+     *
+     * @param interArrivalTimes the distribution of the time (in seconds) between arrivals (negative samples are taken as zero)
+     * @param lengths the distribution of the length (in MI) of Cloudlets (samples are rounded and at least 1)
+     * @param pes the number of PEs of each Cloudlet
+     * @param horizon the time (in seconds) after which there are no more arrivals
+     */
+    public DistributionArrivalSource(
+        final ContinuousDistribution interArrivalTimes, final ContinuousDistribution lengths,
+        final int pes, final double horizon)
+    {
+        if(pes <= 0) {
+            throw new IllegalArgumentException("The number of PEs must be greater than zero.");
+        }
+
+        this.interArrivalTimes = Objects.requireNonNull(interArrivalTimes);
+        this.lengths = Objects.requireNonNull(lengths);
+        this.pes = pes;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Creates a source where Cloudlets arrive following a Poisson process
+     * (exponential time between arrivals) and have normally distributed lengths.
+     *
+     * @param arrivalsPerSecond the mean number of arrivals per second
+     * @param meanLength the mean length (in MI) of Cloudlets
+     * @param lengthStdDev the standard deviation of the length of Cloudlets
+     * @param pes the number of PEs of each Cloudlet
+     * @param horizon the time (in seconds) after which there are no more arrivals
+     * @param seed the seed of the distributions
+     * @return the new source
+     */
+    public static DistributionArrivalSource poisson(
+        final double arrivalsPerSecond, final double meanLength, final double lengthStdDev,
+        final int pes, final double horizon, final long seed)
+    {
+        if(arrivalsPerSecond <= 0) {
+            throw new IllegalArgumentException("The arrival rate must be greater than zero.");
+        }
+
+        return new DistributionArrivalSource(
+            new ExponentialDistr(1 / arrivalsPerSecond, seed),
+            new NormalDistr(meanLength, lengthStdDev, seed + 1), pes, horizon);
+    }
+
+    /**
+     * Creates a source where the time between arrivals and the length of Cloudlets are normally distributed.
+     *
+     * @param meanInterArrivalTime the mean time (in seconds) between arrivals
+     * @param interArrivalStdDev the standard deviation of the time between arrivals
+     * @param meanLength the mean length (in MI) of Cloudlets
+     * @param lengthStdDev the standard deviation of the length of Cloudlets
+     * @param pes the number of PEs of each Cloudlet
+     * @param horizon the time (in seconds) after which there are no more arrivals
+     * @param seed the seed of the distributions
+     * @return the new source
+     */
+    public static DistributionArrivalSource normal(
+        final double meanInterArrivalTime, final double interArrivalStdDev,
+        final double meanLength, final double lengthStdDev,
+        final int pes, final double horizon, final long seed)
+    {
+        return new DistributionArrivalSource(
+            new NormalDistr(meanInterArrivalTime, interArrivalStdDev, seed),
+            new NormalDistr(meanLength, lengthStdDev, seed + 1), pes, horizon);
+    }
+
+    @Override
+    public int fill(final double[] times, final long[] lengths, final int[] pes, final int max) {
+        int count = 0;
+        while (!finished && count < max) {
+            final double time = lastTime + Math.max(0, interArrivalTimes.sample());
+            if(time > horizon) {
+                finished = true;
+                break;
+            }
+
+            times[count] = time;
+            lengths[count] = Math.max(1, Math.round(this.lengths.sample()));
+            pes[count] = this.pes;
+            lastTime = time;
+            count++;
+        }
+
+        return count;
+    }
+}
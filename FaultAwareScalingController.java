@@ -0,0 +1,232 @@
+package org.cloudsimplus.autoscaling;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Adapts the {@link VerticalVmScalingSimple} of a VM in place according to the rate of Host faults
+ * and the SLA headroom, instead of replacing the VM scaling object every time a fault happens.
+ *
+ * <p>The controller computes a pressure from the fault rate (as a fraction of a limit rate)
+ * and from the lack of SLA headroom, which is mapped to a level from 0 to {@link #getMaxLevel()}.
+ * At each level, the scaling factor is {@code baseScalingFactor * (1 + level)}
+ * and the thresholds given by the functions the scaling had when the controller was created
+ * are lowered by {@code level * thresholdStep}, making the VM to be scaled up earlier
+ * and in larger steps, and scaled down later.</p>
+ *
+ * <p>To avoid flapping, the level goes up as soon as the pressure reaches a higher level,
+ * but only goes down (one level at a time) when the pressure falls under the current level
+ * by a hysteresis margin. After any level change, the level is kept at least for a cooldown time,
+ * which is usually shorter for going up than for going down.</p>
+ */
+public class FaultAwareScalingController {
+    private static final double MIN_UPPER_THRESHOLD = 0.05;
+
+    private final VerticalVmScalingSimple scaling;
+    private final Function<Vm, Double> baseLowerThresholdFunction;
+    private final Function<Vm, Double> baseUpperThresholdFunction;
+    private final double baseScalingFactor;
+
+    private int maxLevel = 3;
+    private double thresholdStep = 0.1;
+    private double faultRateLimit = 1;
+    private double faultRateWindow = 3600;
+    private double hysteresis = 0.5;
+    private double upCooldown = 10;
+    private double downCooldown = 60;
+
+    private int level;
+    private double lastLevelChangeTime = Double.NEGATIVE_INFINITY;
+    private double lastUpdateTime = Double.NaN;
+    private long lastFaults;
+    private double faultRate;
+    private double pressure;
+
+    /**
+     * Creates a controller for a VM scaling, taking its current scaling factor and
+     * threshold functions as the base values, and setting the scaling to use the thresholds of the controller.
+     *
+     * @param scaling the VM scaling to control
+     */
+    public FaultAwareScalingController(final VerticalVmScalingSimple scaling) {
+        this.scaling = Objects.requireNonNull(scaling);
+        this.baseScalingFactor = scaling.getScalingFactor();
+        this.baseLowerThresholdFunction = scaling.getLowerThresholdFunction();
+        this.baseUpperThresholdFunction = scaling.getUpperThresholdFunction();
+        scaling.setLowerThresholdFunction(this::lowerThreshold);
+        scaling.setUpperThresholdFunction(this::upperThreshold);
+    }
+
+    /**
+     * Updates the fault rate and the level of the controller, changing the scaling factor if the level changes.
+     *
+     * @param time the current simulation time
+     * @param faults the total number of faults up to now
+     * @param slaHeadroom how far the SLA is from being violated, from 0 (at the SLA limit or beyond)
+     *                    to 1 (far from the limit)
+     * @return true if the level has changed, false otherwise
+     */
+    public boolean update(final double time, final long faults, final double slaHeadroom) {
+        if(Double.isNaN(lastUpdateTime)) {
+            lastUpdateTime = time;
+            lastFaults = faults;
+        }
+
+        final double elapsed = time - lastUpdateTime;
+        if(elapsed > 0) {
+            final double currentRate = (faults - lastFaults) * 3600 / elapsed;
+            faultRate += (1 - Math.exp(-elapsed / faultRateWindow)) * (currentRate - faultRate);
+            lastUpdateTime = time;
+            lastFaults = faults;
+        }
+
+        pressure = Math.max(faultRate / faultRateLimit, 1 - Math.max(0, Math.min(1, slaHeadroom)));
+        final double pressureLevel = pressure * maxLevel;
+        final int targetLevel = (int) Math.min(maxLevel, Math.floor(pressureLevel));
+        final double sinceLastChange = time - lastLevelChangeTime;
+        if(targetLevel > level && sinceLastChange >= upCooldown) {
+            return changeLevel(targetLevel, time);
+        }
+
+        if(level > 0 && pressureLevel < level - hysteresis && sinceLastChange >= downCooldown) {
+            return changeLevel(level - 1, time);
+        }
+
+        return false;
+    }
+
+    private boolean changeLevel(final int newLevel, final double time) {
+        level = newLevel;
+        lastLevelChangeTime = time;
+        scaling.setScalingFactor(baseScalingFactor * (1 + level));
+        return true;
+    }
+
+    /**
+     * Gets the lower CPU utilization threshold of the VM for the current level.
+     *
+     * @param vm the VM to get the threshold
+     * @return the lower threshold
+     */
+    public double lowerThreshold(final Vm vm) {
+        final double lower = baseLowerThresholdFunction.apply(vm) - level * thresholdStep;
+        return Math.max(0, Math.min(lower, upperThreshold(vm) / 2));
+    }
+
+    /**
+     * Gets the upper CPU utilization threshold of the VM for the current level.
+     *
+     * @param vm the VM to get the threshold
+     * @return the upper threshold
+     */
+    public double upperThreshold(final Vm vm) {
+        return Math.max(MIN_UPPER_THRESHOLD, baseUpperThresholdFunction.apply(vm) - level * thresholdStep);
+    }
+
+    /**
+     * Sets the maximum level, which is reached when the pressure is 1.
+     *
+     * @param maxLevel the maximum level to set
+     * @return this controller
+     */
+    public FaultAwareScalingController setMaxLevel(final int maxLevel) {
+        if(maxLevel <= 0) {
+            throw new IllegalArgumentException("The maximum level must be greater than zero.");
+        }
+
+        this.maxLevel = maxLevel;
+        return this;
+    }
+
+    /**
+     * Sets how much the thresholds are lowered at each level.
+     *
+     * @param thresholdStep the threshold step (from 0 to 1) to set
+     * @return this controller
+     */
+    public FaultAwareScalingController setThresholdStep(final double thresholdStep) {
+        if(thresholdStep < 0 || thresholdStep > 1) {
+            throw new IllegalArgumentException("The threshold step must be between 0 and 1.");
+        }
+
+        this.thresholdStep = thresholdStep;
+        return this;
+    }
+
+    /**
+     * Sets the fault rate which brings the pressure to 1 and the time window the rate is averaged over.
+     *
+     * @param faultsPerHour the number of faults per hour which brings the pressure to 1
+     * @param window the time (in seconds) of the exponential moving average of the fault rate
+     * @return this controller
+     */
+    public FaultAwareScalingController setFaultRateLimit(final double faultsPerHour, final double window) {
+        if(faultsPerHour <= 0 || window <= 0) {
+            throw new IllegalArgumentException("The fault rate limit and its window must be greater than zero.");
+        }
+
+        this.faultRateLimit = faultsPerHour;
+        this.faultRateWindow = window;
+        return this;
+    }
+
+    /**
+     * Sets how far (in levels) the pressure must fall below the current level for the level to go down.
+     *
+     * @param hysteresis the hysteresis margin to set
+     * @return this controller
+     */
+    public FaultAwareScalingController setHysteresis(final double hysteresis) {
+        if(hysteresis < 0) {
+            throw new IllegalArgumentException("Hysteresis cannot be negative.");
+        }
+
+        this.hysteresis = hysteresis;
+        return this;
+    }
+
+    /**
+     * Sets the minimum time (in seconds) after a level change before the level can go up or down again.
+     *
+     * @param upCooldown the cooldown before the level goes up
+     * @param downCooldown the cooldown before the level goes down
+     * @return this controller
+     */
+    public FaultAwareScalingController setCooldown(final double upCooldown, final double downCooldown) {
+        if(upCooldown < 0 || downCooldown < 0) {
+            throw new IllegalArgumentException("Cooldown times cannot be negative.");
+        }
+
+        this.upCooldown = upCooldown;
+        this.downCooldown = downCooldown;
+        return this;
+    }
+
+    public VerticalVmScalingSimple getScaling() {
+        return scaling;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * @return the fault rate (in faults per hour) computed in the last update
+     */
+    public double getFaultRate() {
+        return faultRate;
+    }
+
+    /**
+     * @return the pressure computed in the last update, which is 1 or more at the maximum level
+     */
+    public double getPressure() {
+        return pressure;
+    }
+}
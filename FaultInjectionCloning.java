@@ -0,0 +1,113 @@
+package org.cloudsimplus.faultinjection;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Functions to clone VMs and their Cloudlets when a VM is destroyed due to a Host failure,
+ * which can be given to a {@link VmClonerSimple} by method references such as
+ * {@code new VmClonerSimple(FaultInjectionCloning::cloneVm, FaultInjectionCloning::cloneCloudlets)}.
+ *
+ * <p>Clone ids are set to 10 times the id of their source. It's not required to set an id
+ * for a clone, but it makes it easy to relate a VM or Cloudlet to its clone.</p>
+ */
+public final class FaultInjectionCloning {
+    private FaultInjectionCloning() {}
+
+    /**
+     * Clones a VM by creating another one with the same configurations of a given VM.
+     *
+     * @param vm the VM to be cloned
+     * @return the cloned (new) VM.
+     */
+    public static Vm cloneVm(final Vm vm) {
+        final Vm clone = new VmSimple(vm.getMips(), (int) vm.getNumberOfPes());
+        clone.setId(vm.getId() * 10);
+        clone.setDescription("Clone of VM " + vm.getId());
+        clone
+            .setSize(vm.getStorage().getCapacity())
+            .setBw(vm.getBw().getCapacity())
+            .setRam(vm.getRam().getCapacity())
+            .setCloudletScheduler(new CloudletSchedulerTimeShared());
+        return clone;
+    }
+
+    /**
+     * Clones each Cloudlet associated to a given VM. In this case, all the Cloudlets
+     * which were running inside the destroyed VM will be recreated from scratch
+     * into the VM clone, re-starting their execution from the beginning.
+     *
+     * @param sourceVm the VM to clone its Cloudlets
+     * @return the List of cloned Cloudlets.
+     */
+    public static List<Cloudlet> cloneCloudlets(final Vm sourceVm) {
+        return cloneCloudlets(sourceVm.getCloudletScheduler().getCloudletList());
+    }
+
+    /**
+     * Clones each Cloudlet associated to a given VM, making the clones resume
+     * from the last checkpoint of their source Cloudlets.
+     *
+     * @param sourceVm the VM to clone its Cloudlets
+     * @param checkpoints the model which gives the checkpointed length of each Cloudlet
+     * @return the List of cloned Cloudlets.
+     */
+    public static List<Cloudlet> cloneCloudlets(final Vm sourceVm, final CloudletCheckpointModel checkpoints) {
+        final List<Cloudlet> sourceCloudlets = sourceVm.getCloudletScheduler().getCloudletList();
+        final List<Cloudlet> clonedCloudlets = new ArrayList<>(sourceCloudlets.size());
+        for (final Cloudlet cl : sourceCloudlets) {
+            clonedCloudlets.add(cloneCloudlet(cl, checkpoints.checkpoint(cl)));
+        }
+
+        return clonedCloudlets;
+    }
+
+    /**
+     * Clones each Cloudlet in a given list.
+     *
+     * @param sourceCloudlets the Cloudlets to clone
+     * @return the List of cloned Cloudlets, in the same order of the given list.
+     */
+    public static List<Cloudlet> cloneCloudlets(final List<? extends Cloudlet> sourceCloudlets) {
+        final List<Cloudlet> clonedCloudlets = new ArrayList<>(sourceCloudlets.size());
+        for (final Cloudlet cl : sourceCloudlets) {
+            clonedCloudlets.add(cloneCloudlet(cl));
+        }
+
+        return clonedCloudlets;
+    }
+
+    /**
+     * Creates a clone from a given Cloudlet.
+     *
+     * @param source the Cloudlet to be cloned.
+     * @return the cloned (new) cloudlet
+     */
+    public static Cloudlet cloneCloudlet(final Cloudlet source) {
+        return cloneCloudlet(source, 0);
+    }
+
+    /**
+     * Creates a clone from a given Cloudlet, which has just the length
+     * not executed by the source Cloudlet up to its last checkpoint.
+     *
+     * @param source the Cloudlet to be cloned.
+     * @param checkpointedLength the length (in MI) of the source Cloudlet already saved by a checkpoint
+     * @return the cloned (new) cloudlet
+     */
+    public static Cloudlet cloneCloudlet(final Cloudlet source, final long checkpointedLength) {
+        final Cloudlet clone = new CloudletSimple(source.getLength() - checkpointedLength, source.getNumberOfPes());
+        clone.setId(source.getId() * 10);
+        clone
+            .setUtilizationModelBw(source.getUtilizationModelBw())
+            .setUtilizationModelCpu(source.getUtilizationModelCpu())
+            .setUtilizationModelRam(source.getUtilizationModelRam());
+        return clone;
+    }
+}
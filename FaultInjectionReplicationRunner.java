@@ -0,0 +1,267 @@
+package org.cloudsimplus.examples;
+
+import org.cloudsimplus.builders.tables.TableBuilderAbstract;
+import org.cloudsimplus.builders.tables.TableColumn;
+import org.cloudsimplus.faultinjection.HostFaultInjection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Runs independent replications of a fault injection scenario, each one with a different seed
+ * and its own {@link org.cloudbus.cloudsim.core.CloudSim}, {@link HostFaultInjection} and broker,
+ * and reports the mean and the 95% confidence interval of the availability,
+ * the MTTR of VM faults and the MTBF of Hosts.
+ *
+ * <p>Replications run in rounds of {@link #getParallelism()} seeds across all cores.
+ * After each round, the confidence intervals are updated and no more rounds are started
+ * once the half-width of every interval is within a given fraction of its mean
+ * (or the maximum number of replications is reached).
+ * Since seeds are derived from a base seed and samples are added in seed order,
+ * the same base seed always gives the same results, no matter the number of cores.</p>
+ */
+public class FaultInjectionReplicationRunner {
+    private static final long BASE_SEED = 112717613L;
+    private static final int MIN_REPLICATIONS = 10;
+    private static final int MAX_REPLICATIONS = 1000;
+    private static final double MAX_RELATIVE_HALF_WIDTH = 0.05;
+
+    private final LongFunction<HostFaultInjection> scenario;
+    private final int parallelism;
+    private final int minReplications;
+    private final int maxReplications;
+    private final double maxRelativeHalfWidth;
+
+    private final Statistic availability = new Statistic("Availability", "%");
+    private final Statistic vmMttr = new Statistic("VM MTTR", "Minutes");
+    private final Statistic hostMtbf = new Statistic("Host MTBF", "Minutes");
+
+    public static void main(String[] args) {
+        //Log.setLevel(ch.qos.logback.classic.Level.WARN);
+
+        final FaultInjectionReplicationRunner runner = new FaultInjectionReplicationRunner(
+            MyHostFaultInjectionExampleReactMech::runReplication,
+            MIN_REPLICATIONS, MAX_REPLICATIONS, MAX_RELATIVE_HALF_WIDTH);
+        runner.run(BASE_SEED);
+
+        System.out.printf(
+            "%n# %d replications on %d threads. Confidence intervals %s within %.0f%% of the mean.%n",
+            runner.getReplications(), runner.getParallelism(),
+            runner.isConverged() ? "are" : "are NOT", MAX_RELATIVE_HALF_WIDTH * 100);
+        new StatisticTableBuilder(runner.getStatistics()).build();
+    }
+
+    /**
+     * Creates a runner using one thread for each available core.
+     *
+     * @param scenario a function that runs a replication with a given seed and returns its fault injection
+     * @param minReplications the minimum number of replications to run
+     * @param maxReplications the maximum number of replications to run
+     * @param maxRelativeHalfWidth the half-width of the confidence intervals, as a fraction of their mean,
+     *                             below which no more replications are run
+     */
+    public FaultInjectionReplicationRunner(
+        final LongFunction<HostFaultInjection> scenario,
+        final int minReplications, final int maxReplications, final double maxRelativeHalfWidth)
+    {
+        if(minReplications < 2 || maxReplications < minReplications) {
+            throw new IllegalArgumentException("At least 2 replications are required and the maximum cannot be lower than the minimum.");
+        }
+
+        this.scenario = scenario;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.minReplications = minReplications;
+        this.maxReplications = maxReplications;
+        this.maxRelativeHalfWidth = maxRelativeHalfWidth;
+    }
+
+    /**
+     * Runs replications until the confidence intervals are tight enough.
+     *
+     * @param baseSeed the seed from which the seed of each replication is derived
+     */
+    public void run(final long baseSeed) {
+        final SplittableRandom seeds = new SplittableRandom(baseSeed);
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (getReplications() < maxReplications && (getReplications() < minReplications || !isConverged())) {
+                final int round = Math.min(parallelism, maxReplications - getReplications());
+                final List<Callable<HostFaultInjection>> tasks = new ArrayList<>(round);
+                for (int i = 0; i < round; i++) {
+                    final long seed = seeds.nextLong(Long.MAX_VALUE);
+                    tasks.add(() -> scenario.apply(seed));
+                }
+
+                for (final Future<HostFaultInjection> future : pool.invokeAll(tasks)) {
+                    addSample(future.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The replications were interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A replication failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void addSample(final HostFaultInjection fault) {
+        availability.add(fault.availability() * 100);
+        vmMttr.add(fault.meanTimeToRepairVmFaultsInMinutes());
+        hostMtbf.add(fault.meanTimeBetweenHostFaultsInMinutes());
+    }
+
+    /**
+     * @return true if the confidence interval of every statistic is within the maximum relative half-width
+     */
+    public boolean isConverged() {
+        return getStatistics().stream().allMatch(stat -> stat.getRelativeHalfWidth() <= maxRelativeHalfWidth);
+    }
+
+    /**
+     * @return the number of replications run so far
+     */
+    public int getReplications() {
+        return (int) availability.getCount();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public List<Statistic> getStatistics() {
+        return Arrays.asList(availability, vmMttr, hostMtbf);
+    }
+
+    /**
+     * The mean and 95% confidence interval of a metric across replications,
+     * updated in O(1) for each sample using Welford's algorithm.
+     * Samples which aren't finite (such as the MTBF of a replication without faults) are ignored.
+     */
+    public static final class Statistic {
+        /**
+         * Two-sided 95% quantiles of the Student's t distribution, indexed by degrees of freedom minus 1.
+         */
+        private static final double[] T_975 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+        };
+        private static final double Z_975 = 1.959964;
+
+        private final String name;
+        private final String unit;
+        private long count;
+        private long ignored;
+        private double mean;
+        private double m2;
+
+        private Statistic(final String name, final String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        public void add(final double sample) {
+            if(!Double.isFinite(sample)) {
+                ignored++;
+                return;
+            }
+
+            count++;
+            final double delta = sample - mean;
+            mean += delta / count;
+            m2 += delta * (sample - mean);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        /**
+         * @return the number of replications counted in this statistic, plus the ignored ones
+         */
+        public long getCount() {
+            return count + ignored;
+        }
+
+        public long getIgnored() {
+            return ignored;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStandardDeviation() {
+            return count < 2 ? Double.NaN : Math.sqrt(m2 / (count - 1));
+        }
+
+        /**
+         * @return the half-width of the 95% confidence interval of the mean
+         */
+        public double getHalfWidth() {
+            return count < 2 ? Double.POSITIVE_INFINITY : tQuantile(count - 1) * getStandardDeviation() / Math.sqrt(count);
+        }
+
+        /**
+         * @return the half-width of the confidence interval as a fraction of the mean
+         */
+        public double getRelativeHalfWidth() {
+            final double halfWidth = getHalfWidth();
+            if(halfWidth == 0) {
+                return 0;
+            }
+
+            return mean == 0 ? Double.POSITIVE_INFINITY : halfWidth / Math.abs(mean);
+        }
+
+        private static double tQuantile(final long degreesOfFreedom) {
+            if(degreesOfFreedom <= T_975.length) {
+                return T_975[(int) degreesOfFreedom - 1];
+            }
+
+            //Cornish-Fisher expansion, accurate to 3 decimal places above 30 degrees of freedom
+            return Z_975 + (Math.pow(Z_975, 3) + Z_975) / (4 * degreesOfFreedom);
+        }
+    }
+
+    private static class StatisticTableBuilder extends TableBuilderAbstract<Statistic> {
+        private static final String FORMAT = "%.4f";
+
+        StatisticTableBuilder(final List<Statistic> statistics) {
+            super(statistics);
+            setTitle("FAULT INJECTION REPLICATIONS (95% CONFIDENCE INTERVALS)");
+        }
+
+        @Override
+        protected void createTableColumns() {
+            addColumnDataFunction(getTable().addColumn("Metric"), Statistic::getName);
+            addColumnDataFunction(getTable().addColumn("Unit"), Statistic::getUnit);
+            addColumnDataFunction(getTable().addColumn("Samples"), stat -> stat.getCount() - stat.getIgnored());
+
+            TableColumn col = getTable().addColumn("Mean").setFormat(FORMAT);
+            addColumnDataFunction(col, Statistic::getMean);
+
+            col = getTable().addColumn("CI Low").setFormat(FORMAT);
+            addColumnDataFunction(col, stat -> stat.getMean() - stat.getHalfWidth());
+
+            col = getTable().addColumn("CI High").setFormat(FORMAT);
+            addColumnDataFunction(col, stat -> stat.getMean() + stat.getHalfWidth());
+
+            col = getTable().addColumn("Half-Width", "% of Mean").setFormat("%.2f");
+            addColumnDataFunction(col, stat -> stat.getRelativeHalfWidth() * 100);
+        }
+    }
+}
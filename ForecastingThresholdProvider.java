@@ -0,0 +1,189 @@
+package org.cloudsimplus.autoscaling;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Provides lower and upper CPU utilization thresholds for a {@link VerticalVmScalingSimple}
+ * that make a VM to be scaled ahead of its forecast utilization, instead of its current one.
+ * The threshold functions are given to the scaling by
+ * {@code scaling.setLowerThresholdFunction(provider::lowerThreshold)} and
+ * {@code scaling.setUpperThresholdFunction(provider::upperThreshold)}.
+ *
+ * <p>The CPU utilization of each VM is forecast by Holt's linear exponential smoothing,
+ * which keeps a smoothed level and trend (per second) updated in O(1) every time a threshold
+ * is requested at a new simulation time. A trend smoothing of zero turns it into a plain EWMA.
+ * The forecast is the utilization expected after a given horizon.</p>
+ *
+ * <p>Since the scaling compares the current utilization with the thresholds, the thresholds are
+ * moved by the difference between the current and the forecast utilization.
+ * This way, a VM is overloaded when its forecast utilization is above the base upper threshold
+ * and underloaded when it's below the base lower threshold.
+ * The upper threshold is never moved below half its base value and
+ * the lower threshold never goes above half the upper one, so that a short spike in the trend
+ * doesn't make a VM to be scaled up and down repeatedly.</p>
+ *
+ * <p>The thresholds of each VM are computed once per simulation time, from the utilization
+ * at the first request, and the same values are returned for the rest of that time.
+ * The scaling changes the VM PEs (and so its utilization) between its overload and underload
+ * checks, which would otherwise move the thresholds in the middle of a scaling decision.</p>
+ */
+public class ForecastingThresholdProvider {
+    private final double levelSmoothing;
+    private final double trendSmoothing;
+    private final double horizon;
+    private final double baseLowerThreshold;
+    private final double baseUpperThreshold;
+    private final Map<Vm, Forecast> forecasts = new IdentityHashMap<>();
+
+    /**
+     * Creates a threshold provider.
+     *
+     * @param levelSmoothing the smoothing factor of the utilization level, between 0 (exclusive) and 1
+     *                       (higher values follow the current utilization more closely)
+     * @param trendSmoothing the smoothing factor of the utilization trend, between 0 and 1 (0 disables the trend)
+     * @param horizon the time ahead (in seconds) the utilization is forecast for,
+     *                which should cover the time a scaling takes to be effective
+     * @param baseLowerThreshold the utilization (from 0 to 1) below which the forecast of a VM is underloaded
+     * @param baseUpperThreshold the utilization (from 0 to 1) above which the forecast of a VM is overloaded
+     */
+    public ForecastingThresholdProvider(
+        final double levelSmoothing, final double trendSmoothing, final double horizon,
+        final double baseLowerThreshold, final double baseUpperThreshold)
+    {
+        if(levelSmoothing <= 0 || levelSmoothing > 1 || trendSmoothing < 0 || trendSmoothing > 1) {
+            throw new IllegalArgumentException("Smoothing factors must be between 0 and 1.");
+        }
+
+        if(horizon < 0) {
+            throw new IllegalArgumentException("Horizon cannot be negative.");
+        }
+
+        if(baseLowerThreshold < 0 || baseLowerThreshold >= baseUpperThreshold || baseUpperThreshold > 1) {
+            throw new IllegalArgumentException("Thresholds must be between 0 and 1 and the lower one must be lower than the upper one.");
+        }
+
+        this.levelSmoothing = levelSmoothing;
+        this.trendSmoothing = trendSmoothing;
+        this.horizon = horizon;
+        this.baseLowerThreshold = baseLowerThreshold;
+        this.baseUpperThreshold = baseUpperThreshold;
+    }
+
+    /**
+     * Gets the lower CPU utilization threshold of a VM.
+     *
+     * @param vm the VM to get the threshold
+     * @return the lower threshold, from 0 to 1
+     */
+    public double lowerThreshold(final Vm vm) {
+        /*The scaling validates the threshold functions with Vm.NULL when they are set,
+          which has no utilization history.*/
+        return vm == Vm.NULL ? lowerThreshold(0) : update(vm).lowerThreshold;
+    }
+
+    /**
+     * Gets the upper CPU utilization threshold of a VM.
+     *
+     * @param vm the VM to get the threshold
+     * @return the upper threshold, from 0 to 1
+     */
+    public double upperThreshold(final Vm vm) {
+        return vm == Vm.NULL ? upperThreshold(0) : update(vm).upperThreshold;
+    }
+
+    /**
+     * Gets the lower threshold for a forecast increase of the CPU utilization
+     * (or decrease, if negative) from the current utilization.
+     */
+    private double lowerThreshold(final double forecastIncrease) {
+        final double lower = baseLowerThreshold - forecastIncrease;
+        return Math.max(0, Math.min(lower, upperThreshold(forecastIncrease) / 2));
+    }
+
+    /**
+     * Gets the upper threshold for a forecast increase of the CPU utilization
+     * (or decrease, if negative) from the current utilization.
+     */
+    private double upperThreshold(final double forecastIncrease) {
+        final double upper = baseUpperThreshold - forecastIncrease;
+        return Math.min(1, Math.max(upper, baseUpperThreshold / 2));
+    }
+
+    /**
+     * Gets the forecast CPU utilization of a VM after the {@link #getHorizon() horizon}.
+     *
+     * @param vm the VM to get the forecast
+     * @return the forecast utilization (from 0 to 1)
+     */
+    public double forecast(final Vm vm) {
+        return update(vm).forecast(horizon);
+    }
+
+    /**
+     * Updates the forecast and thresholds of a VM with its current utilization,
+     * if the simulation time has advanced since the last update.
+     */
+    private Forecast update(final Vm vm) {
+        final double time = vm.getSimulation().clock();
+        final double utilization = vm.getCpuPercentUtilization();
+        Forecast forecast = forecasts.get(vm);
+        if(forecast == null) {
+            forecast = new Forecast(time, utilization);
+            forecasts.put(vm, forecast);
+            return updateThresholds(forecast, utilization);
+        }
+
+        final double elapsed = time - forecast.lastTime;
+        if(elapsed <= 0) {
+            return forecast;
+        }
+
+        final double previousLevel = forecast.level;
+        forecast.level = levelSmoothing * utilization + (1 - levelSmoothing) * (previousLevel + forecast.trend * elapsed);
+        forecast.trend = trendSmoothing * (forecast.level - previousLevel) / elapsed + (1 - trendSmoothing) * forecast.trend;
+        forecast.lastTime = time;
+        return updateThresholds(forecast, utilization);
+    }
+
+    private Forecast updateThresholds(final Forecast forecast, final double utilization) {
+        final double forecastIncrease = forecast.forecast(horizon) - utilization;
+        forecast.lowerThreshold = lowerThreshold(forecastIncrease);
+        forecast.upperThreshold = upperThreshold(forecastIncrease);
+        return forecast;
+    }
+
+    public double getHorizon() {
+        return horizon;
+    }
+
+    public double getBaseLowerThreshold() {
+        return baseLowerThreshold;
+    }
+
+    public double getBaseUpperThreshold() {
+        return baseUpperThreshold;
+    }
+
+    /**
+     * The smoothed utilization level and trend of a VM, with the thresholds computed at the last update.
+     */
+    private static final class Forecast {
+        private double lastTime;
+        private double level;
+        private double trend;
+        private double lowerThreshold;
+        private double upperThreshold;
+
+        private Forecast(final double time, final double utilization) {
+            this.lastTime = time;
+            this.level = utilization;
+        }
+
+        private double forecast(final double horizon) {
+            return Math.max(0, Math.min(1, level + trend * horizon));
+        }
+    }
+}
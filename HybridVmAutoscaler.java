@@ -0,0 +1,239 @@
+package org.cloudsimplus.autoscaling;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.PeriodicTaskScheduler;
+import org.cloudbus.cloudsim.core.PeriodicTaskScheduler.PeriodicTask;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmWorkload;
+import org.cloudsimplus.autoscaling.resources.ResourceScaling;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Combines the vertical PE scaling of VMs with horizontal scaling, so that VMs first grow
+ * up to a PE ceiling and then new VMs are added, letting the capacity grow beyond the size of a single Host.
+ *
+ * <p>{@link #enable(Vm)} sets a {@link HorizontalVmScalingSimple} to a VM, whose overload predicate
+ * is only met when the VM has reached the PE ceiling and it's still violating the SLA limits:
+ * its CPU utilization is above the maximum SLA CPU utilization,
+ * or the work queued into it will take longer than the SLA maximum task completion time.
+ * The {@link ResourceScaling} of vertical scalings must be wrapped by {@link #limitToPeCeiling(ResourceScaling)},
+ * so that VMs are never scaled up beyond the ceiling.</p>
+ *
+ * <p>When the load drops, the vertical scaling releases PEs and, after {@link #install(PeriodicTaskScheduler)}
+ * is called, VMs added by this autoscaler are destroyed after being idle for a given time,
+ * consolidating the workload back into the initial VMs.
+ * The broker only checks if a VM is idle when one of its Cloudlets returns or all Cloudlets finish,
+ * which never happens for an added VM that received no Cloudlets.
+ * Therefore, the idleness of added VMs is also checked periodically. The check only runs while some
+ * added VM is running, so that it doesn't keep alive a simulation together with entities that keep
+ * scheduling events while any other event is due, such as a fault injection.</p>
+ */
+public class HybridVmAutoscaler {
+    private final DatacenterBroker broker;
+    private final Supplier<Vm> vmSupplier;
+    private final int peCeiling;
+    private final double maxCpuUtilization;
+    private final double maxTaskCompletionTime;
+    private final int maxAddedVms;
+    private final double idleVmDestructionDelay;
+    private final Set<Vm> addedVms = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long totalAddedVms;
+
+    /**
+     * The VM destruction delay function the broker had when this autoscaler was installed,
+     * which is still used for VMs not added by the autoscaler.
+     */
+    private Function<Vm, Double> previousVmDestructionDelayFunction;
+
+    private PeriodicTaskScheduler scheduler;
+
+    /**
+     * The task checking the idleness of added VMs, which is null while there is no added VM running.
+     */
+    private PeriodicTask idleVmCheck;
+
+    /**
+     * Creates an autoscaler, which must be {@link #install(PeriodicTaskScheduler) installed} into the broker
+     * for the VMs it adds to be destroyed when idle.
+     *
+     * @param broker the broker the scaled VMs belong to
+     * @param vmSupplier creates the VMs added by horizontal scaling
+     * @param peCeiling the maximum number of PEs of a VM
+     * @param maxCpuUtilization the maximum CPU utilization (from 0 to 1) of a VM according to the SLA
+     * @param maxTaskCompletionTime the maximum time (in seconds) a Cloudlet may take to complete according to the SLA
+     * @param maxAddedVms the maximum number of VMs added by this autoscaler which may exist at the same time
+     * @param idleVmDestructionDelay the time (in seconds) an added VM must be idle to be destroyed
+     */
+    public HybridVmAutoscaler(
+        final DatacenterBroker broker, final Supplier<Vm> vmSupplier, final int peCeiling,
+        final double maxCpuUtilization, final double maxTaskCompletionTime,
+        final int maxAddedVms, final double idleVmDestructionDelay)
+    {
+        if(peCeiling <= 0 || maxAddedVms < 0 || idleVmDestructionDelay < 0) {
+            throw new IllegalArgumentException("PE ceiling must be positive and maximum VMs and idle delay cannot be negative.");
+        }
+
+        this.broker = Objects.requireNonNull(broker);
+        this.vmSupplier = Objects.requireNonNull(vmSupplier);
+        this.peCeiling = peCeiling;
+        this.maxCpuUtilization = maxCpuUtilization;
+        this.maxTaskCompletionTime = maxTaskCompletionTime;
+        this.maxAddedVms = maxAddedVms;
+        this.idleVmDestructionDelay = idleVmDestructionDelay;
+    }
+
+    /**
+     * Sets the VM destruction delay function of the broker, so that VMs added by this autoscaler
+     * are destroyed after being idle for the given delay. While some added VM is running,
+     * a task requests the broker to destroy the added VMs which are idle, at every such delay.
+     * Other VMs keep the delay given by the function the broker had before.
+     * With a zero delay, added VMs are not checked periodically.
+     *
+     * @param scheduler the scheduler used to check the idleness of added VMs
+     * @return this autoscaler
+     */
+    public HybridVmAutoscaler install(final PeriodicTaskScheduler scheduler) {
+        if(previousVmDestructionDelayFunction != null) {
+            return this;
+        }
+
+        this.scheduler = Objects.requireNonNull(scheduler);
+        previousVmDestructionDelayFunction = broker.getVmDestructionDelayFunction();
+        broker.setVmDestructionDelayFunction(this::vmDestructionDelay);
+        return this;
+    }
+
+    /**
+     * Requests the broker to destroy the running VMs added by this autoscaler
+     * which have been idle for the destruction delay,
+     * cancelling the check when all added VMs were destroyed.
+     */
+    private void destroyIdleVms(final EventInfo evt) {
+        if(countRunningAddedVms() == 0) {
+            idleVmCheck.cancel();
+            idleVmCheck = null;
+            return;
+        }
+
+        for (final Vm vm : new ArrayList<>(addedVms)) {
+            if(!vm.isCreated()) {
+                continue;
+            }
+
+            /*The last busy time of a VM which never ran a Cloudlet is Double.MAX_VALUE,
+              so Vm.isIdleEnough() is never true for it and the broker never destroys it.
+              Such a VM is idle since it started, so the destruction is sent to the datacenter
+              the same way the broker does for idle VMs.*/
+            if(vm.getLastBusyTime() == Double.MAX_VALUE) {
+                if(evt.getTime() - vm.getStartTime() >= idleVmDestructionDelay) {
+                    vm.getSimulation().sendNow(broker, vm.getHost().getDatacenter(), CloudSimTags.VM_DESTROY, vm);
+                    addedVms.remove(vm);
+                }
+            } else if(vm.isIdleEnough(idleVmDestructionDelay)) {
+                broker.requestIdleVmDestruction(vm);
+                addedVms.remove(vm);
+            }
+        }
+    }
+
+    /**
+     * Enables horizontal scaling for a VM.
+     *
+     * @param vm the VM to enable horizontal scaling
+     * @return the given VM
+     */
+    public Vm enable(final Vm vm) {
+        final HorizontalVmScalingSimple horizontalScaling = new HorizontalVmScalingSimple();
+        horizontalScaling
+            .setVmSupplier(this::createVm)
+            .setOverloadPredicate(this::isOverloaded);
+        vm.setHorizontalScaling(horizontalScaling);
+        return vm;
+    }
+
+    /**
+     * Wraps a resource scaling function of a vertical PE scaling,
+     * so that the number of PEs added to a VM never takes it beyond the PE ceiling.
+     *
+     * <p>The amount is limited for every scaling but a down-scaling of an underloaded VM,
+     * whatever the overload predicate says, since the datacenter only decides if the amount
+     * is added or removed after computing it (and after releasing the VM PEs).</p>
+     *
+     * @param resourceScaling the resource scaling function to wrap
+     * @return the wrapping function
+     */
+    public ResourceScaling limitToPeCeiling(final ResourceScaling resourceScaling) {
+        Objects.requireNonNull(resourceScaling);
+        return vs -> {
+            final double amount = resourceScaling.getResourceAmountToScale(vs);
+            if(vs.isVmUnderloaded()) {
+                return amount;
+            }
+
+            return Math.min(amount, Math.max(0, peCeiling - vs.getVm().getNumberOfPes()));
+        };
+    }
+
+    private Vm createVm() {
+        final Vm vm = enable(vmSupplier.get());
+        addedVms.add(vm);
+        totalAddedVms++;
+        if(idleVmCheck == null && scheduler != null && idleVmDestructionDelay > 0) {
+            idleVmCheck = scheduler.schedule(idleVmDestructionDelay, this::destroyIdleVms);
+        }
+
+        return vm;
+    }
+
+    /**
+     * Checks if a VM requires another VM to be created,
+     * which happens when it can't grow vertically anymore and it's violating the SLA limits.
+     *
+     * @param vm the VM to check
+     * @return true if the VM is overloaded, false otherwise
+     */
+    public boolean isOverloaded(final Vm vm) {
+        if(vm.getNumberOfPes() < peCeiling || countRunningAddedVms() >= maxAddedVms) {
+            return false;
+        }
+
+        return vm.getCpuPercentUtilization() > maxCpuUtilization || VmWorkload.queueTime(vm) > maxTaskCompletionTime;
+    }
+
+    /**
+     * Counts the VMs added by this autoscaler which were not destroyed yet,
+     * forgetting the destroyed ones.
+     */
+    private int countRunningAddedVms() {
+        addedVms.removeIf(vm -> vm.isFailed() || vm.getStopTime() > 0);
+        return addedVms.size();
+    }
+
+    /**
+     * Gets the time an idle VM must wait before being destroyed,
+     * which is given by the previous function of the broker for VMs not added by this autoscaler.
+     */
+    private double vmDestructionDelay(final Vm vm) {
+        return addedVms.contains(vm) ? idleVmDestructionDelay : previousVmDestructionDelayFunction.apply(vm);
+    }
+
+    public int getPeCeiling() {
+        return peCeiling;
+    }
+
+    /**
+     * @return the number of VMs added by this autoscaler along the simulation
+     */
+    public long getTotalAddedVms() {
+        return totalAddedVms;
+    }
+}
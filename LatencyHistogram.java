@@ -0,0 +1,218 @@
+package org.cloudsimplus.slametrics;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-memory histogram of latencies (such as Cloudlet task completion times, in seconds),
+ * whose buckets grow geometrically so that every recorded value is represented
+ * with a bounded relative error.
+ *
+ * <p>The number of buckets only depends on the range of trackable values and the relative error,
+ * not on the number of recorded values. For instance, the default histogram tracks values from
+ * 1 millisecond to about 115 days with 1% of relative error using about 2.3 thousand buckets.
+ * Values below the lowest trackable value are counted in an underflow bucket and
+ * values above the highest one in an overflow bucket.</p>
+ *
+ * <p>Histograms with the same configuration can be {@link #merge(LatencyHistogram) merged},
+ * for instance to compute percentiles across several simulation runs.</p>
+ */
+public class LatencyHistogram {
+    public static final double DEFAULT_LOWEST_VALUE = 0.001;
+    public static final double DEFAULT_HIGHEST_VALUE = 10_000_000;
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01;
+
+    private final double lowestValue;
+    private final double highestValue;
+    private final double relativeError;
+    private final double logBase;
+
+    /**
+     * Bucket 0 is the underflow bucket, the last one is the overflow bucket
+     * and bucket i in between counts values in [lowestValue*base^(i-1), lowestValue*base^i).
+     */
+    private final long[] counts;
+
+    private long totalCount;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double sum;
+
+    /**
+     * Creates a histogram using {@link #DEFAULT_LOWEST_VALUE}, {@link #DEFAULT_HIGHEST_VALUE}
+     * and {@link #DEFAULT_RELATIVE_ERROR}.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_LOWEST_VALUE, DEFAULT_HIGHEST_VALUE, DEFAULT_RELATIVE_ERROR);
+    }
+
+    /**
+     * Creates a histogram.
+     *
+     * @param lowestValue the lowest value to be tracked with the given relative error
+     * @param highestValue the highest value to be tracked with the given relative error
+     * @param relativeError the maximum relative error of values represented by each bucket (in scale from 0 to 1)
+     */
+    public LatencyHistogram(final double lowestValue, final double highestValue, final double relativeError) {
+        if(lowestValue <= 0 || highestValue <= lowestValue) {
+            throw new IllegalArgumentException("The lowest value must be positive and lower than the highest value.");
+        }
+
+        if(relativeError <= 0 || relativeError >= 1) {
+            throw new IllegalArgumentException("The relative error must be greater than 0 and lower than 1.");
+        }
+
+        this.lowestValue = lowestValue;
+        this.highestValue = highestValue;
+        this.relativeError = relativeError;
+        this.logBase = Math.log1p(relativeError);
+        final int buckets = (int) Math.ceil(Math.log(highestValue / lowestValue) / logBase);
+        this.counts = new long[buckets + 2];
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record (negative values are counted in the underflow bucket)
+     */
+    public void record(final double value) {
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        sum += value;
+        if(totalCount == 1 || value < min) {
+            min = value;
+        }
+
+        if(totalCount == 1 || value > max) {
+            max = value;
+        }
+    }
+
+    private int bucketIndex(final double value) {
+        if(value < lowestValue) {
+            return 0;
+        }
+
+        if(value >= highestValue) {
+            return counts.length - 1;
+        }
+
+        return Math.min(counts.length - 2, 1 + (int) (Math.log(value / lowestValue) / logBase));
+    }
+
+    /**
+     * Adds all values recorded by another histogram into this one.
+     *
+     * @param other the histogram to merge, which must have the same configuration of this one
+     * @return this histogram
+     */
+    public LatencyHistogram merge(final LatencyHistogram other) {
+        if(other.lowestValue != lowestValue || other.highestValue != highestValue || other.relativeError != relativeError) {
+            throw new IllegalArgumentException("Only histograms with the same lowest value, highest value and relative error can be merged.");
+        }
+
+        if(other.totalCount == 0) {
+            return this;
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        min = totalCount == 0 ? other.min : Math.min(min, other.min);
+        max = totalCount == 0 ? other.max : Math.max(max, other.max);
+        totalCount += other.totalCount;
+        sum += other.sum;
+        return this;
+    }
+
+    /**
+     * Gets the value below which a given percentage of the recorded values fall.
+     * The returned value is the geometric middle of the bucket holding the percentile,
+     * limited to the minimum and maximum recorded values.
+     *
+     * @param percentile the percentile to get (in scale from 0 to 100)
+     * @return the value at the percentile or {@link Double#NaN} if no value was recorded
+     */
+    public double percentile(final double percentile) {
+        if(percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+
+        if(totalCount == 0) {
+            return Double.NaN;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if(cumulative >= rank) {
+                return Math.max(min, Math.min(max, bucketValue(i)));
+            }
+        }
+
+        return max;
+    }
+
+    private double bucketValue(final int bucket) {
+        if(bucket == 0) {
+            return min;
+        }
+
+        if(bucket == counts.length - 1) {
+            return max;
+        }
+
+        return lowestValue * Math.exp((bucket - 0.5) * logBase);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the minimum recorded value or {@link Double#NaN} if no value was recorded
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return the maximum recorded value or {@link Double#NaN} if no value was recorded
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the mean of recorded values or {@link Double#NaN} if no value was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? Double.NaN : sum / totalCount;
+    }
+
+    public double getRelativeError() {
+        return relativeError;
+    }
+
+    /**
+     * @return the number of buckets, including the underflow and overflow ones
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+}
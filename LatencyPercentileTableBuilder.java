@@ -0,0 +1,60 @@
+package org.cloudsimplus.builders.tables;
+
+import org.cloudsimplus.slametrics.LatencyHistogram;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds a table with percentiles of the task completion time recorded into a {@link LatencyHistogram},
+ * showing for each percentile the margin left to the max task completion time of the SLA contract.
+ * A negative margin means that percentile of Cloudlets violated the SLA.
+ */
+public class LatencyPercentileTableBuilder extends TableBuilderAbstract<Double> {
+    public static final List<Double> DEFAULT_PERCENTILES = Arrays.asList(50.0, 95.0, 99.0, 99.9);
+
+    private static final String TIME_FORMAT = "%.2f";
+    private static final String SECONDS = "Seconds";
+
+    private final LatencyHistogram histogram;
+    private final double maxTaskCompletionTime;
+
+    public LatencyPercentileTableBuilder(final LatencyHistogram histogram, final double maxTaskCompletionTime) {
+        this(histogram, maxTaskCompletionTime, DEFAULT_PERCENTILES);
+    }
+
+    /**
+     * Creates a table builder.
+     *
+     * @param histogram the histogram to get the percentiles from
+     * @param maxTaskCompletionTime the max task completion time from the SLA contract
+     * @param percentiles the percentiles to show (in scale from 0 to 100)
+     */
+    public LatencyPercentileTableBuilder(
+        final LatencyHistogram histogram, final double maxTaskCompletionTime, final List<Double> percentiles)
+    {
+        super(percentiles);
+        this.histogram = histogram;
+        this.maxTaskCompletionTime = maxTaskCompletionTime;
+        setTitle("TASK COMPLETION TIME PERCENTILES (" + histogram.getTotalCount() + " Cloudlets)");
+    }
+
+    @Override
+    protected void createTableColumns() {
+        addColumnDataFunction(getTable().addColumn("Percentile", "%"), p -> p);
+
+        /*This is called by the super constructor before the histogram field is set,
+          so the functions must read the field when rows are built instead of binding it here.*/
+        TableColumn col = getTable().addColumn("Total Time", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, p -> histogram.percentile(p));
+
+        col = getTable().addColumn("SLA Max Time", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, p -> maxTaskCompletionTime);
+
+        col = getTable().addColumn("SLA Margin", SECONDS).setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, p -> maxTaskCompletionTime - histogram.percentile(p));
+
+        col = getTable().addColumn("SLA Margin", "%").setFormat(TIME_FORMAT);
+        addColumnDataFunction(col, p -> (maxTaskCompletionTime - histogram.percentile(p)) / maxTaskCompletionTime * 100);
+    }
+}
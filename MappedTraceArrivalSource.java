@@ -0,0 +1,378 @@
+package org.cloudsimplus.workload;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link ArrivalSource} that reads arrivals from a workload trace file in the
+ * <a href="https://www.cs.huji.ac.il/labs/parallel/workload/swf.html">Standard Workload Format (SWF)</a>
+ * or in a delimited text (CSV) format.
+ *
+ * <p>The file is memory-mapped in chunks of up to {@link #DEFAULT_CHUNK_SIZE} bytes and records are parsed
+ * directly from the mapped bytes, without creating a String for each line or field.
+ * When a record crosses the end of a chunk, the next chunk is mapped starting at that record.
+ * Therefore, only the arrivals requested by {@link #fill(double[], long[], int[], int)} are in memory,
+ * no matter the size of the trace.</p>
+ *
+ * <p>Blank lines and comment lines are ignored. Records without a valid submit time, length or number of PEs
+ * (such as SWF records with -1 for unknown values) are skipped and counted by {@link #getSkippedRecords()}.
+ * Arrival times are relative to the submit time of the first record,
+ * and a record submitted before the previous one arrives at the same time as it.</p>
+ */
+public class MappedTraceArrivalSource implements ArrivalSource, Closeable {
+    public static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+
+    /**
+     * A {@link #delimiter} indicating fields are separated by any number of spaces or tabs.
+     */
+    private static final byte WHITESPACE = 0;
+    private static final int NO_COLUMN = -1;
+
+    private static final int RECORD = 0;
+    private static final int IGNORED_LINE = 1;
+    private static final int INVALID_RECORD = 2;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int chunkSize;
+    private final byte delimiter;
+    private final byte comment;
+    private final int timeColumn;
+    private final int lengthColumn;
+    private final int pesColumn;
+    private final int fallbackPesColumn;
+    private final int lastColumn;
+    private final double lengthMultiplier;
+    private boolean skipHeader;
+
+    private ByteBuffer buffer;
+    private long chunkStart;
+    private int position;
+
+    /* Fields of the last parsed record. */
+    private double time;
+    private double length;
+    private double pes;
+    private double fallbackPes;
+
+    private double firstTime = Double.NaN;
+    private double lastTime;
+    private long records;
+    private long skippedRecords;
+
+    private MappedTraceArrivalSource(
+        final Path file, final int chunkSize, final byte delimiter, final byte comment, final boolean skipHeader,
+        final int timeColumn, final int lengthColumn, final int pesColumn, final int fallbackPesColumn,
+        final double lengthMultiplier)
+    {
+        if(chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than zero.");
+        }
+
+        if(timeColumn < 0 || lengthColumn < 0 || pesColumn < 0) {
+            throw new IllegalArgumentException("Column indexes cannot be negative.");
+        }
+
+        this.chunkSize = chunkSize;
+        this.delimiter = delimiter;
+        this.comment = comment;
+        this.skipHeader = skipHeader;
+        this.timeColumn = timeColumn;
+        this.lengthColumn = lengthColumn;
+        this.pesColumn = pesColumn;
+        this.fallbackPesColumn = fallbackPesColumn;
+        this.lastColumn = Math.max(Math.max(timeColumn, lengthColumn), Math.max(pesColumn, fallbackPesColumn));
+        this.lengthMultiplier = lengthMultiplier;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.fileSize = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.buffer = ByteBuffer.allocate(0);
+        if(fileSize > 0) {
+            map(0);
+        }
+    }
+
+    /**
+     * Creates a source for a trace in the Standard Workload Format.
+     * The length of each Cloudlet is its run time multiplied by the MIPS capacity of the PEs that ran it,
+     * and the number of PEs is the number of allocated processors (or the requested ones, if unknown).
+     *
+     * @param file the trace file
+     * @param mipsPerPe the MIPS capacity of each PE in the system the trace was collected from
+     * @return the new source
+     */
+    public static MappedTraceArrivalSource swf(final Path file, final double mipsPerPe) {
+        return new MappedTraceArrivalSource(file, DEFAULT_CHUNK_SIZE, WHITESPACE, (byte) ';', false, 1, 3, 4, 7, mipsPerPe);
+    }
+
+    /**
+     * Creates a source for a delimited text trace, where each line has the submit time (in seconds),
+     * the length (in MI) and the number of PEs of a Cloudlet, besides any other fields.
+     * Lines starting with {@code #} are ignored.
+     *
+     * @param file the trace file
+     * @param delimiter the field delimiter
+     * @param header indicates if the first line is a header to be skipped
+     * @param timeColumn the index of the submit time column (starting at 0)
+     * @param lengthColumn the index of the length column
+     * @param pesColumn the index of the number of PEs column
+     * @return the new source
+     */
+    public static MappedTraceArrivalSource csv(
+        final Path file, final char delimiter, final boolean header,
+        final int timeColumn, final int lengthColumn, final int pesColumn)
+    {
+        if(delimiter > 127) {
+            throw new IllegalArgumentException("The delimiter must be an ASCII character.");
+        }
+
+        return new MappedTraceArrivalSource(
+            file, DEFAULT_CHUNK_SIZE, (byte) delimiter, (byte) '#', header,
+            timeColumn, lengthColumn, pesColumn, NO_COLUMN, 1);
+    }
+
+    private void map(final long start) {
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, fileSize - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        chunkStart = start;
+        position = 0;
+    }
+
+    @Override
+    public int fill(final double[] times, final long[] lengths, final int[] pes, final int max) {
+        int count = 0;
+        while (count < max) {
+            final int end = nextLineEnd();
+            if(end < 0) {
+                break;
+            }
+
+            final int result = skipHeader ? IGNORED_LINE : parseLine(position, end);
+            position = end + 1;
+            skipHeader = false;
+            if(result == IGNORED_LINE) {
+                continue;
+            }
+
+            if(result == INVALID_RECORD) {
+                skippedRecords++;
+                continue;
+            }
+
+            if(Double.isNaN(firstTime)) {
+                firstTime = time;
+            }
+
+            lastTime = Math.max(lastTime, time - firstTime);
+            times[count] = lastTime;
+            lengths[count] = Math.max(1, Math.round(length * lengthMultiplier));
+            pes[count] = (int) (this.pes > 0 ? this.pes : fallbackPes);
+            records++;
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the index (in the current chunk) of the end of the line starting at the current position,
+     * mapping the next chunk if the line crosses the end of the current one.
+     *
+     * @return the index of the line feed (or the end of the file) which ends the line,
+     *         or -1 if there are no more lines
+     */
+    private int nextLineEnd() {
+        while (true) {
+            final int limit = buffer.limit();
+            for (int i = position; i < limit; i++) {
+                if(buffer.get(i) == '\n') {
+                    return i;
+                }
+            }
+
+            if(chunkStart + limit >= fileSize) {
+                return position < limit ? limit : -1;
+            }
+
+            if(position == 0) {
+                throw new IllegalStateException(
+                    "Trace line at byte " + chunkStart + " is longer than the chunk size of " + chunkSize + " bytes.");
+            }
+
+            map(chunkStart + position);
+        }
+    }
+
+    /**
+     * Parses the fields of a line into {@link #time}, {@link #length}, {@link #pes} and {@link #fallbackPes}.
+     *
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     * @return {@link #RECORD}, {@link #IGNORED_LINE} or {@link #INVALID_RECORD}
+     */
+    private int parseLine(final int start, final int end) {
+        int i = start;
+        while (i < end && isBlank(buffer.get(i))) {
+            i++;
+        }
+
+        if(i == end || buffer.get(i) == comment) {
+            return IGNORED_LINE;
+        }
+
+        time = length = pes = fallbackPes = Double.NaN;
+        for (int column = 0; column <= lastColumn && i <= end; column++) {
+            int fieldEnd = i;
+            while (fieldEnd < end && !isSeparator(buffer.get(fieldEnd))) {
+                fieldEnd++;
+            }
+
+            if(column == timeColumn) {
+                time = parseNumber(i, fieldEnd);
+            } else if(column == lengthColumn) {
+                length = parseNumber(i, fieldEnd);
+            } else if(column == pesColumn) {
+                pes = parseNumber(i, fieldEnd);
+            } else if(column == fallbackPesColumn) {
+                fallbackPes = parseNumber(i, fieldEnd);
+            }
+
+            i = fieldEnd + 1;
+            if(delimiter == WHITESPACE) {
+                while (i < end && isBlank(buffer.get(i))) {
+                    i++;
+                }
+            }
+        }
+
+        final boolean validPes = pes >= 1 || fallbackPes >= 1;
+        return time >= 0 && length > 0 && validPes ? RECORD : INVALID_RECORD;
+    }
+
+    private boolean isSeparator(final byte b) {
+        return delimiter == WHITESPACE ? isBlank(b) : b == delimiter || b == '\r';
+    }
+
+    private static boolean isBlank(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Parses a decimal number (with optional sign, fraction and exponent)
+     * from the bytes of a field, ignoring surrounding spaces and quotes.
+     *
+     * @return the number or {@link Double#NaN} if the field is not a number
+     */
+    private double parseNumber(int from, int to) {
+        while (from < to && isPadding(buffer.get(from))) {
+            from++;
+        }
+
+        while (to > from && isPadding(buffer.get(to - 1))) {
+            to--;
+        }
+
+        if(from == to) {
+            return Double.NaN;
+        }
+
+        final boolean negative = buffer.get(from) == '-';
+        if(negative || buffer.get(from) == '+') {
+            from++;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; from < to; from++) {
+            final byte b = buffer.get(from);
+            if(b >= '0' && b <= '9') {
+                digits++;
+                if(mantissa < Long.MAX_VALUE / 10 - 1) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if(fraction) {
+                        scale--;
+                    }
+                } else if(!fraction) {
+                    scale++;
+                }
+            } else if(b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if(digits == 0) {
+            return Double.NaN;
+        }
+
+        if(from < to && (buffer.get(from) == 'e' || buffer.get(from) == 'E')) {
+            from++;
+            final boolean negativeExponent = from < to && buffer.get(from) == '-';
+            if(from < to && (negativeExponent || buffer.get(from) == '+')) {
+                from++;
+            }
+
+            int exponent = 0;
+            int exponentDigits = 0;
+            for (; from < to && buffer.get(from) >= '0' && buffer.get(from) <= '9'; from++, exponentDigits++) {
+                exponent = Math.min(exponent * 10 + (buffer.get(from) - '0'), 1000);
+            }
+
+            if(exponentDigits == 0) {
+                return Double.NaN;
+            }
+
+            scale += negativeExponent ? -exponent : exponent;
+        }
+
+        if(from != to) {
+            return Double.NaN;
+        }
+
+        final double value = scale >= 0 ? mantissa * Math.pow(10, scale) : mantissa / Math.pow(10, -scale);
+        return negative ? -value : value;
+    }
+
+    private static boolean isPadding(final byte b) {
+        return b == ' ' || b == '\t' || b == '"';
+    }
+
+    /**
+     * @return the number of records read so far
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return the number of records skipped so far because they have invalid or unknown values
+     */
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -48,15 +48,17 @@ import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.faultinjection.CloudletCheckpointModel;
+import org.cloudsimplus.faultinjection.FaultInjectionCloning;
 import org.cloudsimplus.faultinjection.HostFaultInjection;
+import org.cloudsimplus.faultinjection.SpareHostPool;
 import org.cloudsimplus.faultinjection.VmClonerSimple;
 import org.cloudsimplus.listeners.EventInfo;
-import org.cloudsimplus.slametrics.SlaContract;
-import org.cloudsimplus.slametrics.SlaMetric;
-import org.cloudsimplus.slametrics.SlaMetricDimension;
+import org.cloudsimplus.slametrics.SlaContractSnapshot;
+import org.cloudsimplus.util.AsyncLogSink;
+import org.cloudsimplus.util.AsyncLogSink.Level;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -79,6 +81,21 @@ public final class MyHostFaultInjectionExampleReactMech {
     in a Poisson Process, which is also called event rate or rate parameter.*/
     private static final double MEAN_FAILURE_NUMBER_PER_HOUR = 0.01;
 
+    /**
+     * Execution time (in seconds) between checkpoints of Cloudlets
+     * and the time (in seconds) each checkpoint takes to be saved.
+     */
+    private static final double CHECKPOINT_INTERVAL = 600;
+    private static final double CHECKPOINT_OVERHEAD = 10;
+
+    /**
+     * Time (in seconds) it takes for a new spare Host to be ready,
+     * after another one is handed over to the datacenter.
+     */
+    private static final double SPARE_HOST_PROVISIONING_TIME = 1800;
+
+    private static final int MAX_SPARE_HOSTS = 3;
+
     private List<Host> hostList;
 
     private static final int VM_MIPS = 1000;
@@ -101,6 +118,14 @@ public final class MyHostFaultInjectionExampleReactMech {
 
     private static final int CLOUDLETS = 6;
 
+    private static final String SLA_CONTRACT_FILE = "CustomerSLA.json";
+
+    /**
+     * The seed used by {@link #main(String[])}.
+     * Use the system time to get random results every time you run the simulation.
+     */
+    private static final long DEFAULT_SEED = 112717613L;
+
     private final List<Vm> vmList = new ArrayList<>(VMS);
     private final List<Cloudlet> cloudletList = new ArrayList<>(CLOUDLETS);
     private CloudSim simulation;
@@ -109,8 +134,44 @@ public final class MyHostFaultInjectionExampleReactMech {
 
     private HostFaultInjection fault;
 
+    /**
+     * Gives the length already executed by Cloudlets when they are cloned after a Host fault.
+     */
+    private final CloudletCheckpointModel checkpoints = new CloudletCheckpointModel(CHECKPOINT_INTERVAL, CHECKPOINT_OVERHEAD);
+
+    /**
+     * The standby Hosts added to the {@link #datacenter} when Host faults happen.
+     */
+    private SpareHostPool spareHosts;
+
+    /**
+     * The SLA values, loaded just once and shared by all listeners.
+     */
+    private final SlaContractSnapshot sla;
+
     private long hostFaults = 0;
 
+    /**
+     * The seed for the {@link #poisson} generator, which defines
+     * when Host faults happen and is the only random part of the scenario.
+     */
+    private final long seed;
+
+    /**
+     * Indicates if tables and progress messages are printed,
+     * which is disabled when many replications run at the same time.
+     */
+    private final boolean printResults;
+
+    /**
+     * Formats and prints the SLA messages out of the simulation thread.
+     * It's turned off when results aren't printed.
+     */
+    private final AsyncLogSink log;
+    private final int availabilityViolationFormat;
+    private final int faultsFormat;
+    private final int spareHostsFormat;
+
     /**
      * The Poisson Random Number Generator used to generate failure times (in hours).
      */
@@ -122,16 +183,38 @@ public final class MyHostFaultInjectionExampleReactMech {
      * @param args
      */
     public static void main(String[] args) {
-        new MyHostFaultInjectionExampleReactMech();
+        new MyHostFaultInjectionExampleReactMech(DEFAULT_SEED, true);
     }
 
-    private MyHostFaultInjectionExampleReactMech() {
+    /**
+     * Runs the scenario without printing results, to be used as a replication
+     * of a {@link FaultInjectionReplicationRunner}.
+     *
+     * @param seed the seed for generating Host failure times
+     * @return the fault injection of the finished simulation, from which availability and MTTR/MTBF can be read
+     */
+    public static HostFaultInjection runReplication(final long seed) {
+        return new MyHostFaultInjectionExampleReactMech(seed, false).fault;
+    }
+
+    private MyHostFaultInjectionExampleReactMech(final long seed, final boolean printResults) {
         /*Enables just some level of log messages.
           Make sure to import org.cloudsimplus.util.Log;*/
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
 
-        System.out.println("Starting " + getClass().getSimpleName());
+        this.seed = seed;
+        this.printResults = printResults;
+        this.log = new AsyncLogSink(printResults ? Level.INFO : Level.OFF);
+        this.availabilityViolationFormat =
+            log.registerFormat("SYSTEM DOWN , SEND HELP%nAvailability SLA Condition has been violated!  Current Availability: %s%n");
+        this.faultsFormat = log.registerFormat("SYSTEM DOWN , SEND HELP%nBefore: %d%nAfter: %d%n");
+        this.spareHostsFormat = log.registerFormat("%.2f: # Added %d spare Hosts to Datacenter %d (%d spares left)%n");
+        if(printResults) {
+            System.out.println("Starting " + getClass().getSimpleName());
+        }
+
         simulation = new CloudSim();
+        sla = getSLAValues();
 
         datacenter = createDatacenter();
 
@@ -139,9 +222,15 @@ public final class MyHostFaultInjectionExampleReactMech {
         createAndSubmitVms();
         createAndSubmitCloudlets();
         createFaultInjectionForHosts(datacenter);
+        createSpareHostPool();
 
         simulation.addOnClockTickListener(this::slaReactiveMech);
         simulation.start();
+        log.close();
+        if(!printResults) {
+            return;
+        }
+
         new CloudletsTableBuilder(broker.getCloudletFinishedList()).build();
         //slaViolations(broker.getCloudletFinishedList());
 
@@ -154,7 +243,13 @@ public final class MyHostFaultInjectionExampleReactMech {
         System.out.printf("# Mean Time To Repair Failures of VMs in minutes (MTTR): %.2f minute%n", fault.meanTimeToRepairVmFaultsInMinutes());
         System.out.printf("# Mean Time Between Failures (MTBF) affecting all VMs in minutes: %.2f minutes%n", fault.meanTimeBetweenVmFaultsInMinutes());
         System.out.printf("# Hosts MTBF: %.2f minutes%n", fault.meanTimeBetweenHostFaultsInMinutes());
-        System.out.printf("# Availability: %.2f%%%n%n", fault.availability()*100);
+        System.out.printf("# Availability: %.2f%%%n", fault.availability()*100);
+        System.out.printf(
+            "# Spare Hosts added to the datacenter: %d (mean recovery time %.2f seconds, %d spares left)%n",
+            spareHosts.getHandedOverHosts(), spareHosts.getMeanRecoveryTime(), spareHosts.getNumberOfSpares());
+        System.out.printf(
+            "# Cloudlets resumed from checkpoints: %d (%d MI kept, %d MI lost)%n%n",
+            checkpoints.getCheckpointedCloudlets(), checkpoints.getTotalCheckpointedLength(), checkpoints.getTotalLostLength());
 
         System.out.println(getClass().getSimpleName() + " finished!");
 
@@ -207,7 +302,6 @@ public final class MyHostFaultInjectionExampleReactMech {
         for (int i = 0; i < HOSTS; i++) {
             hostList.add(createHost());
         }
-        System.out.println();
 
         Datacenter dc = new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple());
         dc.setSchedulingInterval(SCHEDULE_TIME_TO_PROCESS_DATACENTER_EVENTS);
@@ -245,9 +339,6 @@ public final class MyHostFaultInjectionExampleReactMech {
      * @param datacenter
      */
     private void createFaultInjectionForHosts(Datacenter datacenter) {
-        //Use the system time to get random results every time you run the simulation
-        //final long seed = System.currentTimeMillis();
-        final long seed = 112717613L;
         this.poisson = new PoissonDistr(MEAN_FAILURE_NUMBER_PER_HOUR, seed);
 
         fault = new HostFaultInjection(datacenter, poisson);
@@ -257,8 +348,17 @@ public final class MyHostFaultInjectionExampleReactMech {
     }
 
     /**
-     * Clones a VM by creating another one with the same configurations of a
-     * given VM.
+     * Creates the pool of spare Hosts, sized from the expected Host MTBF
+     * given by the {@link #poisson} failure rate until Host faults are observed.
+     */
+    private void createSpareHostPool() {
+        final double expectedMtbf = poisson.getInterArrivalMeanTime() * 3600;
+        spareHosts = new SpareHostPool(fault, this::createHost, SPARE_HOST_PROVISIONING_TIME, expectedMtbf)
+            .setSizeLimits(1, MAX_SPARE_HOSTS);
+    }
+
+    /**
+     * Clones a VM using {@link FaultInjectionCloning#cloneVm(Vm)}.
      *
      * @param vm the VM to be cloned
      * @return the cloned (new) VM.
@@ -266,30 +366,19 @@ public final class MyHostFaultInjectionExampleReactMech {
      * @see #createFaultInjectionForHosts(Datacenter)
      */
     private Vm cloneVm(Vm vm) {
-        Vm clone = new VmSimple(vm.getMips(), (int) vm.getNumberOfPes());
-        /*It' not required to set an ID for the clone.
-        It is being set here just to make it easy to
-        relate the ID of the vm to its clone,
-        since the clone ID will be 10 times the id of its
-        source VM.*/
-        clone.setId(vm.getId() * 10);
-        clone.setDescription("Clone of VM " + vm.getId());
-        clone
-            .setSize(vm.getStorage().getCapacity())
-            .setBw(vm.getBw().getCapacity())
-            .setRam(vm.getBw().getCapacity())
-            .setCloudletScheduler(new CloudletSchedulerTimeShared());
-        System.out.printf("%n%n# Cloning %s - MIPS %.2f Number of Pes: %d%n", vm, clone.getMips(), clone.getNumberOfPes());
+        final Vm clone = FaultInjectionCloning.cloneVm(vm);
+        if(printResults) {
+            System.out.printf("%n%n# Cloning %s - MIPS %.2f Number of Pes: %d%n", vm, clone.getMips(), clone.getNumberOfPes());
+        }
 
         return clone;
     }
 
     /**
-     * Clones each Cloudlet associated to a given VM. The method is called when
-     * a VM is destroyed due to a Host failure and a snapshot from that VM (a
-     * clone) is started into another Host. In this case, all the Cloudlets
-     * which were running inside the destroyed VM will be recreated from scratch
-     * into the VM clone, re-starting their execution from the beginning.
+     * Clones each Cloudlet associated to a given VM using
+     * {@link FaultInjectionCloning#cloneCloudlets(Vm, CloudletCheckpointModel)}.
+     * The method is called when a VM is destroyed due to a Host failure and a snapshot from that VM (a
+     * clone) is started into another Host, resuming each Cloudlet from its last checkpoint.
      *
      * @param sourceVm the VM to clone its Cloudlets
      * @return the List of cloned Cloudlets.
@@ -297,56 +386,18 @@ public final class MyHostFaultInjectionExampleReactMech {
      * #createFaultInjectionForHosts(Datacenter)
      */
     private List<Cloudlet> cloneCloudlets(Vm sourceVm) {
-        final List<Cloudlet> sourceVmCloudlets = sourceVm.getCloudletScheduler().getCloudletList();
-        final List<Cloudlet> clonedCloudlets = new ArrayList<>(sourceVmCloudlets.size());
-        for (Cloudlet cl : sourceVmCloudlets) {
-            Cloudlet clone = cloneCloudlet(cl);
-            clonedCloudlets.add(clone);
-            System.out.printf("# Created Cloudlet Clone for %s (Cloned Cloudlet Id: %d)%n", sourceVm, clone.getId());
+        final List<Cloudlet> clonedCloudlets = FaultInjectionCloning.cloneCloudlets(sourceVm, checkpoints);
+        if(printResults) {
+            for (Cloudlet clone : clonedCloudlets) {
+                System.out.printf("# Created Cloudlet Clone for %s (Cloned Cloudlet Id: %d)%n", sourceVm, clone.getId());
+            }
         }
 
         return clonedCloudlets;
     }
 
-    /**
-     * Creates a clone from a given Cloudlet.
-     *
-     * @param source the Cloudlet to be cloned.
-     * @return the cloned (new) cloudlet
-     */
-    private Cloudlet cloneCloudlet(Cloudlet source) {
-        Cloudlet clone = new CloudletSimple(source.getLength(), source.getNumberOfPes());
-        /*It' not required to set an ID for the clone.
-        It is being set here just to make it easy to
-        relate the ID of the cloudlet to its clone,
-        since the clone ID will be 10 times the id of its
-        source cloudlet.*/
-        clone.setId(source.getId() * 10);
-        clone
-            .setUtilizationModelBw(source.getUtilizationModelBw())
-            .setUtilizationModelCpu(source.getUtilizationModelCpu())
-            .setUtilizationModelRam(source.getUtilizationModelRam());
-        return clone;
-    }
-
     private void slaViolations (List<Cloudlet> Cloudlets, HostFaultInjection fault) {
 
-        //Initiating SLA Contract from CustomerSLA.json file
-        String file = "CustomerSLA.json";
-        SlaContract contract = SlaContract.getInstance(file);
-
-        //TaskCompletionMetric Values
-        final SlaMetric TaskCompletionMetric = contract.getTaskCompletionTimeMetric();
-        final SlaMetricDimension MAXTime = TaskCompletionMetric.getMaxDimension();
-
-        //Fault Tolerance Metric Values
-        final SlaMetric FaultToleranceMetric = contract.getFaultToleranceLevel();
-        final SlaMetricDimension MINFaultTol = contract.getFaultToleranceLevel().getMinDimension();
-
-        //Availability
-        final SlaMetric Availability = contract.getAvailabilityMetric();
-        final SlaMetricDimension MINAvailability = contract.getAvailabilityMetric().getMinDimension();
-
         //Initializing Cloudlet List
         List<Cloudlet> cloudletList = Cloudlets;
 
@@ -355,103 +406,68 @@ public final class MyHostFaultInjectionExampleReactMech {
 
 
         //Checking if fault Tolerance commitement of  Customers SLA Contract has been violated
-        System.out.println("Contract agreed value of fault tolerance level minimum value is " + MINFaultTol.getValue());
+        System.out.println("Contract agreed value of fault tolerance level minimum value is " + sla.getMinFaultTolerance());
         System.out.println("Number of Faults during simulations execution : " + fault.getNumberOfFaults());
-        if (fault.getNumberOfFaults() >= MINFaultTol.getValue()){
+        if (fault.getNumberOfFaults() >= sla.getMinFaultTolerance()){
             contractViolation=true;
         }
 
-        System.out.println("Contract agreed value of availability level minimum value is " + MINAvailability.getValue() + "%");
+        System.out.println("Contract agreed value of availability level minimum value is " + sla.getMinAvailability() + "%");
         System.out.println("Availability during simulations execution : " + fault.availability()*100 +"%");
-        if (fault.availability()*100 < MINAvailability.getValue()){
+        if (fault.availability()*100 < sla.getMinAvailability()){
             contractViolation=true;
         }
 
         //Debugging Line
-        //System.out.print(MAXTime.getValue());
+        //System.out.print(sla.getMaxTaskCompletionTime());
     }
 
-    public HashMap<String, Double> getSLAValues(){
-
-
-        //Initiating SLA Contract from CustomerSLA.json file
-        String file = "CustomerSLA.json";
-        SlaContract contract = SlaContract.getInstance(file);
-
-        //TaskCompletionMetric Values
-        final SlaMetric TaskCompletionMetric = contract.getTaskCompletionTimeMetric();
-        final SlaMetricDimension MAXTime = TaskCompletionMetric.getMaxDimension();
-
-        //Fault Tolerance Metric Values
-        final SlaMetric FaultToleranceMetric = contract.getFaultToleranceLevel();
-        final SlaMetricDimension MINFaultTol = contract.getFaultToleranceLevel().getMinDimension();
-
-        //Availability Metric Values
-        final SlaMetric AvailabilityMetric = contract.getAvailabilityMetric();
-        final SlaMetricDimension MINAvailability = contract.getAvailabilityMetric().getMinDimension();
-
-        //CPU Utilization Metric Values
-        final SlaMetric CpuUtilMetric = contract.getCpuUtilizationMetric();
-        final SlaMetricDimension MAXCpuUtil = contract.getCpuUtilizationMetric().getMaxDimension();
-
-        HashMap<String,Double> SLAMetrics = new HashMap<String,Double>();
-        SLAMetrics.put("MAXTime", MAXTime.getValue());
-        SLAMetrics.put("MINFaultTol", MINFaultTol.getValue());
-        SLAMetrics.put("MINAvailability",MINAvailability.getValue());
-        SLAMetrics.put("MAXCpuUtil",MAXCpuUtil.getValue());
-
-        return SLAMetrics;
-
-
+    /**
+     * Gets the values from the {@link #SLA_CONTRACT_FILE} as a cached immutable snapshot,
+     * so the file is just parsed again when it is changed.
+     *
+     * @return the SLA contract snapshot
+     */
+    public SlaContractSnapshot getSLAValues(){
+        return SlaContractSnapshot.getInstance(SLA_CONTRACT_FILE);
     }
 
     private void slaReactiveMech (EventInfo evt) {
         List<Vm> vmList2 = new ArrayList<>(VMS);
          List<Cloudlet> cloudletListRE = new ArrayList<>(CLOUDLETS);
-        HashMap<String,Double> SLAMetrics = getSLAValues();
         long NumberOfFaults =0 ;
 
-
         //Provisioning
 
-        if (fault.availability()*100<= SLAMetrics.get("MINAvailability")){
-            System.out.println("SYSTEM DOWN , SEND HELP");
-            System.out.println("Availability SLA Condition has been violated!  Current Availability: " + fault.availability());
+        if (fault.availability()*100<= sla.getMinAvailability()){
+            log.log(Level.INFO, availabilityViolationFormat, fault.availability());
         }
 
         if (fault.getNumberOfFaults() > NumberOfFaults){
-            System.out.println("SYSTEM DOWN , SEND HELP");
-            System.out.println("Before: " + NumberOfFaults); //Debugging
+            log.log(Level.DEBUG, faultsFormat, NumberOfFaults, fault.getNumberOfFaults());
             NumberOfFaults = fault.getNumberOfFaults();
-            System.out.println("After: " + NumberOfFaults); //Debugging
         }
 
         if (fault.getNumberOfHostFaults() > this.hostFaults){
-            System.out.println("SYSTEM DOWN , SEND HELP");
-            System.out.println("Before: " + this.hostFaults); //Debugging
+            log.log(Level.INFO, faultsFormat, this.hostFaults, fault.getNumberOfHostFaults());
             this.hostFaults = fault.getNumberOfHostFaults();
-            System.out.println("After: " + this.hostFaults); //Debugging
-
-            /*
-            if(datacenter.getActiveHostsNumber()<3) {
-                Host host = createHost();
-                datacenter.addHost(host);
-                System.out.printf("%n %.2f: # Physically expanding the %s by adding the new %s to it.", evt.getTime(), datacenter, host);
 
+            final int addedHosts = spareHosts.replaceFailedHosts(evt.getTime());
+            log.log(Level.INFO, spareHostsFormat, evt.getTime(), addedHosts, datacenter.getId(), spareHosts.getNumberOfSpares());
 
+            //The lists are just converted to String if they will be printed
+            if(log.isEnabled(Level.DEBUG)) {
+                log.log(Level.DEBUG, broker.getVmCreatedList().toString());
+                log.log(Level.DEBUG, broker.getCloudletSubmittedList().toString());
+                log.log(Level.DEBUG, broker.getCloudletWaitingList().toString());
+                log.log(Level.DEBUG, broker.getVmFailedList().toString());
             }
-            */
-
-            System.out.println(broker.getVmCreatedList());
-            System.out.println(broker.getCloudletSubmittedList());
-            System.out.println(broker.getCloudletWaitingList());
-            System.out.println(broker.getVmFailedList());
 
 
 
         }
 //            if((int)evt.getTime() == 0){
-//                System.out.println(SLAMetrics.get("MAXTime"));
+//                System.out.println(sla.getMaxTaskCompletionTime());
 //            }
     }
 }
@@ -23,11 +23,13 @@
  */
 package org.cloudsimplus.examples;
 
-import org.cloudbus.cloudsim.brokers.DatacenterBroker;
-import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.brokers.CloudletResubmissionEngine;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerWindowed;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.cloudlets.CloudletStatusRegistry;
+import org.cloudbus.cloudsim.cloudlets.ObservableCloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.PeriodicTaskScheduler;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
 import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
@@ -41,13 +43,23 @@ import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerCompletelyFair
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
-import org.cloudsimplus.builders.tables.CloudletTableBuilderSLA;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.builders.tables.CloudletTableStreamSLA;
+import org.cloudsimplus.builders.tables.CloudletResultTableBuilder;
+import org.cloudsimplus.builders.tables.LatencyPercentileTableBuilder;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
 import org.cloudsimplus.listeners.EventInfo;
-import org.cloudsimplus.slametrics.SlaContract;
-import org.cloudsimplus.slametrics.SlaMetric;
-import org.cloudsimplus.slametrics.SlaMetricDimension;
-
+import org.cloudsimplus.results.CloudletColumnarExporter;
+import org.cloudsimplus.results.CloudletResultStore;
+import org.cloudsimplus.slametrics.SlaContractSnapshot;
+import org.cloudsimplus.slametrics.SlaViolationAccumulator;
+import org.cloudsimplus.workload.ArrivalProcessEngine;
+import org.cloudsimplus.workload.ArrivalSource;
+import org.cloudsimplus.workload.DistributionArrivalSource;
+import org.cloudsimplus.workload.MappedTraceArrivalSource;
+import org.cloudsimplus.workload.PooledCloudletFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -78,44 +90,185 @@ public class MyTest3 {
     private static final int CLOUDLET_PES = 2;
     private static final int CLOUDLET_LENGTH = 100000;
 
+    private static final String SLA_CONTRACT_FILE = "CustomerSLA.json";
+
+    /**
+     * File where the SLA table rows are written as Cloudlets finish.
+     */
+    private static final String SLA_TABLE_FILE = "MyTest3-SLA.txt";
+
+    /**
+     * Binary file where the results of each finished Cloudlet are exported as primitive columns,
+     * which can be loaded by a {@link org.cloudsimplus.results.CloudletColumnarReader}.
+     */
+    private static final String CLOUDLET_RESULTS_FILE = "MyTest3-cloudlets.bin";
+
+    /**
+     * Time (in seconds) a failed Cloudlet waits before its first resubmission,
+     * which doubles at each retry up to {@link #RESUBMISSION_MAX_BACKOFF}.
+     */
+    private static final double RESUBMISSION_BASE_BACKOFF = 5;
+    private static final double RESUBMISSION_MAX_BACKOFF = 80;
+    private static final int RESUBMISSION_MAX_RETRIES = 3;
+
+    /**
+     * Interval (in seconds) between executions of the task resubmission control.
+     */
+    private static final double RESUBMISSION_CHECK_INTERVAL = 5;
+
+    /**
+     * Mean number of Cloudlets arriving per second after the initial ones, following a Poisson process,
+     * until the {@link #ARRIVALS_HORIZON} time (in seconds).
+     */
+    private static final double ARRIVALS_PER_SECOND = 0.4;
+    private static final double ARRIVALS_HORIZON = 300;
+    private static final int DYNAMIC_CLOUDLET_PES = 4;
+    private static final long ARRIVALS_SEED = 42;
+
+    /**
+     * Interval (in seconds) between the submissions of arriving Cloudlets,
+     * which are created just before they arrive.
+     */
+    private static final double ARRIVALS_LOOKAHEAD = 10;
+
+    /**
+     * MIPS capacity of the PEs of the system a SWF trace was collected from,
+     * used to convert the run time of jobs to Cloudlet lengths.
+     */
+    private static final double TRACE_MIPS_PER_PE = 1000;
+
+    /**
+     * Time (in seconds) a finished dynamic Cloudlet waits before being reused for a new arrival.
+     */
+    private static final double CLOUDLET_REUSE_QUARANTINE = 60;
+
+    /**
+     * Maximum number of Cloudlets running or waiting inside each VM.
+     * Other submitted Cloudlets wait in the broker backlog.
+     */
+    private static final int MAX_OUTSTANDING_CLOUDLETS_PER_VM = 4;
+
     private final CloudSim simulation;
-    private DatacenterBroker broker0;
+    private final PeriodicTaskScheduler periodicTasks;
+    private final SlaContractSnapshot sla;
+
+    /**
+     * Updates the SLA violations as each Cloudlet finishes,
+     * so that the results are available during the simulation run.
+     */
+    private final SlaViolationAccumulator slaAccumulator;
+
+    /**
+     * Indexes created Cloudlets by their status, so that failed ones
+     * can be found without scanning every created Cloudlet.
+     */
+    private final CloudletStatusRegistry cloudletRegistry;
+
+    /**
+     * Writes a row of the SLA table as each Cloudlet finishes,
+     * instead of building the table from the whole finished list at the end.
+     */
+    private final CloudletTableStreamSLA slaTable;
+
+    private final CloudletColumnarExporter resultsExporter;
+
+    /**
+     * Keeps the results of finished Cloudlets as primitive columns,
+     * so that the results table is built from the values captured when each Cloudlet finished.
+     */
+    private final CloudletResultStore cloudletResults;
+
+    private DatacenterBrokerWindowed broker0;
+    private CloudletResubmissionEngine resubmissionEngine;
+    private ArrivalProcessEngine arrivals;
+    private MappedTraceArrivalSource traceSource;
+    private PooledCloudletFactory cloudletPool;
     private List<Vm> vmList;
     private List<Cloudlet> cloudletList;
     private Datacenter datacenter0;
 
+    /**
+     * Runs the scenario.
+     *
+     * @param args an optional path to a workload trace file (*.swf for the Standard Workload Format
+     *             or a CSV file with a header and the submit time, length and PEs columns)
+     *             to replay instead of the Poisson arrivals
+     */
     public static void main(String[] args) {
-        new MyTest3();
+        new MyTest3(args.length > 0 ? Paths.get(args[0]) : null);
     }
 
-    private MyTest3() {
+    private MyTest3(final Path traceFile) {
         /*Enables just some level of log messages.
           Make sure to import org.cloudsimplus.util.Log;*/
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
 
         simulation = new CloudSim();
+        periodicTasks = new PeriodicTaskScheduler(simulation);
+        sla = SlaContractSnapshot.getInstance(SLA_CONTRACT_FILE);
         datacenter0 = createDatacenter();
+        slaAccumulator = new SlaViolationAccumulator(sla);
+        cloudletRegistry = new CloudletStatusRegistry();
+        slaTable = new CloudletTableStreamSLA(Paths.get(SLA_TABLE_FILE));
+        resultsExporter = new CloudletColumnarExporter(Paths.get(CLOUDLET_RESULTS_FILE));
+        cloudletResults = new CloudletResultStore();
 
         //Creates a broker that is a software acting on behalf a cloud customer to manage his/her VMs and Cloudlets
-        broker0 = new DatacenterBrokerSimple(simulation);
+        broker0 = new DatacenterBrokerWindowed(simulation, MAX_OUTSTANDING_CLOUDLETS_PER_VM);
+        resubmissionEngine = new CloudletResubmissionEngine(
+            broker0, RESUBMISSION_BASE_BACKOFF, RESUBMISSION_MAX_BACKOFF, RESUBMISSION_MAX_RETRIES);
+        cloudletRegistry.addOnStatusChangeListener(this::onCloudletStatusChange);
 
         vmList = createVms();
         cloudletList = createCloudlets();
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
 
-        simulation.addOnClockTickListener(this::createDynamicCloudlet);
-        simulation.addOnClockTickListener(this::ReactiveMech);
-        //simulation.addOnClockTickListener(this::cancelCloudlets);
+        final ArrivalSource arrivalSource;
+        if(traceFile == null) {
+            arrivalSource = DistributionArrivalSource.poisson(
+                ARRIVALS_PER_SECOND, CLOUDLET_LENGTH, 500, DYNAMIC_CLOUDLET_PES, ARRIVALS_HORIZON, ARRIVALS_SEED);
+        } else {
+            traceSource = traceFile.toString().endsWith(".swf") ?
+                              MappedTraceArrivalSource.swf(traceFile, TRACE_MIPS_PER_PE) :
+                              MappedTraceArrivalSource.csv(traceFile, ',', true, 0, 1, 2);
+            arrivalSource = traceSource;
+        }
+
+        //Pooled Cloudlets get ids after the ones of the initial Cloudlets and report results by the factory
+        cloudletPool = new PooledCloudletFactory(
+                simulation, () -> cloudletRegistry.register(new ObservableCloudletSimple(1, 1)), CLOUDLET_REUSE_QUARANTINE)
+            .setFirstId(CLOUDLETS)
+            .addOnFinishListener(this::onCloudletFinish);
+        arrivals = new ArrivalProcessEngine(periodicTasks, broker0, arrivalSource, cloudletPool, ARRIVALS_LOOKAHEAD);
+        periodicTasks.schedule(RESUBMISSION_CHECK_INTERVAL, this::ReactiveMech);
+        //periodicTasks.schedule(2, this::cancelCloudlets);
         simulation.start();
 
 
-        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        new CloudletsTableBuilder(finishedCloudlets).build();
-        new CloudletTableBuilderSLA(finishedCloudlets).build();
+        new CloudletResultTableBuilder(cloudletResults).build();
+        new LatencyPercentileTableBuilder(
+            slaAccumulator.getTotalTimeHistogram(), sla.getMaxTaskCompletionTime()).build();
+        slaTable.close();
+        System.out.printf("SLA table with %d Cloudlets written to %s%n", slaTable.getRows(), SLA_TABLE_FILE);
+        resultsExporter.close();
+        System.out.printf("Results of %d Cloudlets exported to %s%n", resultsExporter.getRows(), CLOUDLET_RESULTS_FILE);
+        System.out.printf(
+            "%d dynamic Cloudlets arrived in %d submissions (%d Cloudlet objects created, %d reused)%n",
+            arrivals.getSubmittedCloudlets(), arrivals.getSubmissions(),
+            cloudletPool.getCreatedCloudlets(), cloudletPool.getReusedCloudlets());
+        System.out.printf(
+            "Broker backlog peaked at %d Cloudlets (%d per VM outstanding)%n",
+            broker0.getMaxBacklogSize(), MAX_OUTSTANDING_CLOUDLETS_PER_VM);
+        if(traceSource != null) {
+            traceSource.close();
+            System.out.printf(
+                "%d trace records read from %s (%d skipped)%n",
+                traceSource.getRecords(), traceFile, traceSource.getSkippedRecords());
+        }
 
-        // We run SLAViolations function after simulation completion so it does not affect the run times in the cpu.
-        slaViolations(finishedCloudlets);
+        // SLA violations were accumulated as Cloudlets finished, so there is no need to scan the finished list.
+        slaViolations();
 
 
     }
@@ -181,132 +334,85 @@ public class MyTest3 {
         final UtilizationModelDynamic utilizationModel = new UtilizationModelDynamic(0.5);
 
         for (int i = 0; i < CLOUDLETS; i++) {
-            final Cloudlet cloudlet = new CloudletSimple(((int) random.sample()), CLOUDLET_PES, utilizationModel);
+            final ObservableCloudletSimple cloudlet = new ObservableCloudletSimple(((int) random.sample()), CLOUDLET_PES, utilizationModel);
             cloudlet.setSizes(1024);
-            list.add(cloudlet);
+            //Sets the id instead of the broker, which could number it after the ids of pooled Cloudlets
+            cloudlet.setId(i);
+            list.add(trackCloudlet(cloudlet));
         }
 
         return list;
     }
 
-    private void createDynamicCloudlet (EventInfo evt) {
-        final int delay = 5;
-        final ContinuousDistribution random = new NormalDistr( 100000, 500);
-
-
-        if(true){
-            List<Cloudlet> newCloudletList = new ArrayList<>(CLOUDLETS);
-            System.out.printf("\n# Dynamically creating 2 Cloudlets at time %.2f\n", evt.getTime());
-            Cloudlet cloudlet1 = new CloudletSimple((int) random.sample(), 4);
-
-            newCloudletList.add(cloudlet1);
-            Cloudlet cloudlet2 = new CloudletSimple((int) random.sample(), 4);
-            newCloudletList.add(cloudlet2);
-            broker0.submitCloudletList(newCloudletList);
-        }
+    /**
+     * Registers a Cloudlet into the {@link #cloudletRegistry}
+     * and makes its results to be reported when it finishes.
+     *
+     * @param cloudlet the Cloudlet to track
+     * @return the given Cloudlet
+     */
+    private Cloudlet trackCloudlet(ObservableCloudletSimple cloudlet) {
+        cloudletRegistry.register(cloudlet);
+        cloudlet.addOnFinishListener(this::onCloudletFinish);
+        return cloudlet;
     }
 
-    private void slaViolations (List<Cloudlet> Cloudlets) {
-
-        //Initiating SLA Contract from CustomerSLA.json file
-        String file = "CustomerSLA.json";
-        SlaContract contract = SlaContract.getInstance(file);
-
-        //TaskCompletionMetric Values
-        final SlaMetric TaskCompletionMetric = contract.getTaskCompletionTimeMetric();
-        final SlaMetricDimension MAXTime = TaskCompletionMetric.getMaxDimension();
-
-        //Fault Tolerance Metric Values
-        final SlaMetric FaultToleranceMetric = contract.getFaultToleranceLevel();
-        final SlaMetricDimension MINFaultTol = contract.getFaultToleranceLevel().getMinDimension();
-
-        //Initializing Cloudlet List
-        List<Cloudlet> cloudletList = Cloudlets;
-
-        //Initiating Violation values
-        int totalTaskCompletionTimeViolations = 0;
-        int totalFaultToleranceViolations = 0;
-
-        //
-        for( int pos=0; pos<cloudletList.size(); pos++){
-
-            /* DEBUGGING LINES
-            System.out.println(cloudletList.get(pos).getId() + " : ID");
-            System.out.println(cloudletList.get(pos).getFinishTime() + " : Finshed Time");
-            System.out.println(cloudletList.get(pos).getExecStartTime() + " : Exec Start Time");
-            System.out.println(cloudletList.get(pos).getStatus() + " : Status");
-            System.out.println();
-            */
-
-
-            double totalTime = cloudletList.get(pos).getFinishTime() - cloudletList.get(pos).getExecStartTime();
-
-            //Increasing Task Completion Time Violations by one every time the total time of a cloudlet is greater
-            // than TaskCompletion maximum value given in the SLA Contract
-            if ( totalTime > MAXTime.getValue()){
-                totalTaskCompletionTimeViolations ++;
-            }
-
-            //Increasing FaultToleranceViolations by one every time a cloudlet failed its process.
-
-            //UPDATE THIS IS NOT AN ACCURATE METHOD TO CALCULATE Fault Tolerance Violations
-            if ( cloudletList.get(pos).getStatus().equals("FAILED")) {
-                totalFaultToleranceViolations ++;
-            }
-
-
+    private void onCloudletFinish(CloudletVmEventInfo info) {
+        slaAccumulator.onCloudletFinish(info);
+        slaTable.onCloudletFinish(info);
+        resultsExporter.onCloudletFinish(info);
+        cloudletResults.onCloudletFinish(info);
+    }
 
-        }
+    private void slaViolations () {
 
-        System.out.println("Total Sla Time Violations: " + totalTaskCompletionTimeViolations);
-        //System.out.println("Total Sla Time Violations: " + totalFaultToleranceViolations);
+        System.out.println("Total Sla Time Violations: " + slaAccumulator.getTaskCompletionTimeViolations());
+        System.out.println(slaAccumulator);
 
         //Checking if fault Tolerance commitement of  Customers SLA Contract has been violated
         /*
-        if (totalFaultToleranceViolations >= MINFaultTol.getValue()){
-            System.out.println("Total fault tolerance violations in the simulation : " + totalFaultToleranceViolations);
-            System.out.println("Fault Tolerance Level minimum valued aggreed on the SLA :" + MINFaultTol.getValue());
+        if (slaAccumulator.getFailedCloudlets() >= sla.getMinFaultTolerance()){
+            System.out.println("Total fault tolerance violations in the simulation : " + slaAccumulator.getFailedCloudlets());
+            System.out.println("Fault Tolerance Level minimum valued aggreed on the SLA :" + sla.getMinFaultTolerance());
             System.out.println("Contract was violated!");
         }
         */
-
-
-        //Debugging Line
-        //System.out.print(MAXTime.getValue());
     }
 
+    /**
+     * Runs every {@link #RESUBMISSION_CHECK_INTERVAL} seconds,
+     * scheduled by the {@link #periodicTasks}.
+     */
     private void ReactiveMech (EventInfo evt) {
+        System.out.println("Executing task resubmission control..");
 
-        // TO DO WITH ID
-        int check_time = 5;
-
-        // Runs every check_times assigned value seconds.
-        if((evt.getTime()%check_time) == 0) {
-            System.out.println("Executing task resubmission control..");
-            List<Cloudlet> createdList = new ArrayList<>(CLOUDLETS);
-            createdList = broker0.getCloudletCreatedList();
-
-            List<Cloudlet> resubmitList = new ArrayList<>(CLOUDLETS);
-
-
-            for (int i = 0; i < createdList.size(); i++) {
-                if (createdList.get(i).getStatus().compareTo(Cloudlet.Status.FAILED) == 0 ||
-                    createdList.get(i).getStatus().compareTo(Cloudlet.Status.FAILED_RESOURCE_UNAVAILABLE) == 0){
-                        resubmitList.add(createdList.get(i));
-                }
-            }
+        //Sends all failed Cloudlets whose backoff has expired in a single submission
+        List<Cloudlet> resubmitList = resubmissionEngine.flush(evt.getTime());
 
-            if(resubmitList.size()!=0) {
-                System.out.println("Cloudlets are being resubmitted :" + resubmitList.toString());
-                broker0.submitCloudletList(resubmitList);
-            }
+        if(resubmitList.size()!=0) {
+            System.out.println("Cloudlets are being resubmitted :" + resubmitList.toString());
         }
+    }
 
+    /**
+     * Counts failed Cloudlets into the {@link #slaAccumulator}
+     * and offers them to the {@link #resubmissionEngine} as soon as they fail.
+     * Since it's called just when the status changes, the same failure is never offered twice.
+     *
+     * @param cloudlet the Cloudlet which changed its status
+     * @param previousStatus the status before the change
+     */
+    private void onCloudletStatusChange(Cloudlet cloudlet, Cloudlet.Status previousStatus) {
+        slaAccumulator.onCloudletStatusChange(cloudlet, previousStatus);
+        if (cloudlet.getStatus() == Cloudlet.Status.FAILED ||
+            cloudlet.getStatus() == Cloudlet.Status.FAILED_RESOURCE_UNAVAILABLE){
+            resubmissionEngine.offer(cloudlet, simulation.clock());
+        } else if (cloudlet.getStatus() == Cloudlet.Status.SUCCESS) {
+            resubmissionEngine.forget(cloudlet);
+        }
     }
 
     private void cancelCloudlets( EventInfo evt){
-        if (evt.getTime()%2==0){
-            broker0.getCloudletSubmittedList().remove(0);
-        }
+        broker0.getCloudletSubmittedList().remove(0);
     }
 }
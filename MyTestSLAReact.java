@@ -23,8 +23,7 @@
  */
 package org.cloudsimplus.examples;
 
-import org.cloudbus.cloudsim.brokers.DatacenterBroker;
-import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSla;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -40,22 +39,22 @@ import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerCompletelyFair
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
-import org.cloudsimplus.builders.tables.CloudletTableBuilderSLA;
-import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.builders.tables.CloudletResultTableBuilder;
+import org.cloudsimplus.builders.tables.LatencyPercentileTableBuilder;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
 import org.cloudsimplus.listeners.EventInfo;
-import org.cloudsimplus.slametrics.SlaContract;
-import org.cloudsimplus.slametrics.SlaMetric;
-import org.cloudsimplus.slametrics.SlaMetricDimension;
+import org.cloudsimplus.results.CloudletResultStore;
+import org.cloudsimplus.slametrics.SlaContractSnapshot;
+import org.cloudsimplus.slametrics.SlaViolationAccumulator;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 /**
  * A minimal but organized, structured and re-usable CloudSim Plus example
  * which shows good coding practices for creating simulation scenarios.
  *
- * <p>It defines a set of constants that enables a developer
+ * <p>It receives a {@link ScenarioParameters} that enables a developer
  * to change the number of Hosts, VMs and Cloudlets to create
  * and the number of {@link Pe}s for Hosts, VMs and Cloudlets.</p>
  *
@@ -66,37 +65,72 @@ public class MyTestSLAReact {
 
 
 
-    private static final int HOSTS = 1;
-    private static final int HOST_PES = 16;
+    private static final String SLA_CONTRACT_FILE = "CustomerSLA.json";
 
-    private static final int VMS = 4;
-    private static final int VM_PES = 4;
+    /**
+     * The number of Hosts, VMs and Cloudlets and their PEs,
+     * which can be changed to run the scenario in a {@link ParameterSweepRunner}.
+     */
+    private final ScenarioParameters params;
 
-    private static final int CLOUDLETS = 120;
-    private static final int CLOUDLET_PES = 2;
-    private static final int CLOUDLET_LENGTH = 10000;
+    /**
+     * Indicates if tables and progress messages are printed,
+     * which is disabled when many scenarios run at the same time.
+     */
+    private final boolean printResults;
 
     private final CloudSim simulation;
-    private DatacenterBroker broker0;
+    private final SlaContractSnapshot sla;
+
+    /**
+     * Updates the SLA violations as each Cloudlet finishes,
+     * so that the results are available during the simulation run.
+     */
+    private final SlaViolationAccumulator slaAccumulator;
+
+    /**
+     * Keeps the results of finished Cloudlets as primitive columns,
+     * so that the results table is built from the values captured when each Cloudlet finished.
+     */
+    private final CloudletResultStore cloudletResults;
+
+    private DatacenterBrokerSla broker0;
     private List<Vm> vmList;
     private List<Cloudlet> cloudletList;
     private Datacenter datacenter0;
 
 
     public static void main(String[] args) {
-        new MyTestSLAReact();
+        new MyTestSLAReact(ScenarioParameters.DEFAULT, true);
     }
 
-    private MyTestSLAReact() {
+    /**
+     * Runs the scenario without printing results, to be used as a point of a parameter sweep.
+     *
+     * @param params the scenario parameters
+     * @return the SLA results of the run
+     * @see ParameterSweepRunner
+     */
+    public static SlaViolationAccumulator run(final ScenarioParameters params) {
+        return new MyTestSLAReact(params, false).slaAccumulator;
+    }
+
+    private MyTestSLAReact(final ScenarioParameters params, final boolean printResults) {
         /*Enables just some level of log messages.
           Make sure to import org.cloudsimplus.util.Log;*/
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
 
+        this.params = params;
+        this.printResults = printResults;
         simulation = new CloudSim();
+        sla = getSLAValues();
         datacenter0 = createDatacenter();
+        slaAccumulator = new SlaViolationAccumulator(sla, cl -> cl.getArrivalTime(datacenter0));
+        cloudletResults = new CloudletResultStore(params.getCloudlets());
 
-        //Creates a broker that is a software acting on behalf a cloud customer to manage his/her VMs and Cloudlets
-        broker0 = new DatacenterBrokerSimple(simulation);
+        /*Creates a broker that is a software acting on behalf a cloud customer to manage his/her VMs and Cloudlets,
+          placing each Cloudlet in the VM where it's predicted to meet the SLA maximum completion time.*/
+        broker0 = new DatacenterBrokerSla(simulation, sla.getMaxTaskCompletionTime());
 
         vmList = createVms();
         cloudletList = createCloudlets();
@@ -108,13 +142,17 @@ public class MyTestSLAReact {
         //simulation.addOnClockTickListener(this::slaReactiveMech);
         simulation.start();
 
+        if(!printResults) {
+            return;
+        }
 
-        final List<Cloudlet> finishedCloudlets = broker0.getCloudletFinishedList();
-        new CloudletsTableBuilder(finishedCloudlets).build();
-        new CloudletTableBuilderSLA(finishedCloudlets).build();
+        new CloudletResultTableBuilder(cloudletResults).build();
+        new LatencyPercentileTableBuilder(
+            slaAccumulator.getTotalTimeHistogram(), sla.getMaxTaskCompletionTime()).build();
 
-        // We run SLAViolations function after simulation completion so it does not affect the run times in the cpu.
-        slaViolations(finishedCloudlets);
+        // SLA violations were accumulated as Cloudlets finished, so there is no need to scan the finished list.
+        slaViolations();
+        System.out.println("Cloudlets placed with a predicted SLA violation: " + broker0.getPredictedViolations());
 
 
     }
@@ -123,8 +161,8 @@ public class MyTestSLAReact {
      * Creates a Datacenter and its Hosts.
      */
     private Datacenter createDatacenter() {
-        final List<Host> hostList = new ArrayList<>(HOSTS);
-        for(int i = 0; i < HOSTS; i++) {
+        final List<Host> hostList = new ArrayList<>(params.getHosts());
+        for(int i = 0; i < params.getHosts(); i++) {
             Host host = createHost();
             hostList.add(host);
         }
@@ -134,9 +172,9 @@ public class MyTestSLAReact {
     }
 
     private Host createHost() {
-        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        final List<Pe> peList = new ArrayList<>(params.getHostPes());
         //List of Host's CPUs (Processing Elements, PEs)
-        for (int i = 0; i < HOST_PES; i++) {
+        for (int i = 0; i < params.getHostPes(); i++) {
             //Uses a PeProvisionerSimple by default to provision PEs for VMs
             peList.add(new PeSimple(1000));
         }
@@ -156,10 +194,10 @@ public class MyTestSLAReact {
      * Creates a list of VMs.
      */
     private List<Vm> createVms() {
-        final List<Vm> list = new ArrayList<>(VMS);
-        for (int i = 0; i < VMS; i++) {
+        final List<Vm> list = new ArrayList<>(params.getVms());
+        for (int i = 0; i < params.getVms(); i++) {
             //Uses a CloudletSchedulerTimeShared by default to schedule Cloudlets
-            final Vm vm = new VmSimple(1000, VM_PES);
+            final Vm vm = new VmSimple(1000, params.getVmPes());
             vm.setCloudletScheduler(new CloudletSchedulerCompletelyFair());
             vm.setRam(512).setBw(1000).setSize(10000);
             list.add(vm);
@@ -173,16 +211,16 @@ public class MyTestSLAReact {
      */
     private List<Cloudlet> createCloudlets() {
 
-        final ContinuousDistribution random = new NormalDistr( 10000, 500);
-        final List<Cloudlet> list = new ArrayList<>(CLOUDLETS);
+        final ContinuousDistribution random = new NormalDistr(params.getCloudletLength(), 500);
+        final List<Cloudlet> list = new ArrayList<>(params.getCloudlets());
 
         //UtilizationModel defining the Cloudlets use only 50% of any resource all the time
         final UtilizationModelDynamic utilizationModel = new UtilizationModelDynamic(0.5);
 
-        for (int i = 0; i < CLOUDLETS; i++) {
-            final Cloudlet cloudlet = new CloudletSimple(((int) random.sample()), CLOUDLET_PES, utilizationModel);
+        for (int i = 0; i < params.getCloudlets(); i++) {
+            final Cloudlet cloudlet = new CloudletSimple(((int) random.sample()), params.getCloudletPes(), utilizationModel);
             cloudlet.setSizes(1024);
-            list.add(cloudlet);
+            list.add(trackCloudlet(cloudlet));
         }
 
         return list;
@@ -190,23 +228,34 @@ public class MyTestSLAReact {
 
     private void createDynamicCloudlet (EventInfo evt) {
         final int delay = 5;
-        final ContinuousDistribution random = new NormalDistr( 10000, 500);
+        final ContinuousDistribution random = new NormalDistr(params.getCloudletLength(), 500);
 
         if((int)evt.getTime() == delay || (int)evt.getTime() == delay*2){
-            List<Cloudlet> newCloudletList = new ArrayList<>(CLOUDLETS);
-            System.out.printf("\n# Dynamically creating 2 Cloudlets at time %.2f\n", evt.getTime());
+            List<Cloudlet> newCloudletList = new ArrayList<>(2);
+            if(printResults) {
+                System.out.printf("\n# Dynamically creating 2 Cloudlets at time %.2f\n", evt.getTime());
+            }
             Cloudlet cloudlet1 = new CloudletSimple((int) random.sample(), 2);
 
-            newCloudletList.add(cloudlet1);
+            newCloudletList.add(trackCloudlet(cloudlet1));
             Cloudlet cloudlet2 = new CloudletSimple((int) random.sample(), 2);
-            newCloudletList.add(cloudlet2);
+            newCloudletList.add(trackCloudlet(cloudlet2));
             broker0.submitCloudletList(newCloudletList);
         }
     }
 
+    private Cloudlet trackCloudlet(Cloudlet cloudlet) {
+        cloudlet.addOnFinishListener(this::onCloudletFinish);
+        return cloudlet;
+    }
+
+    private void onCloudletFinish(CloudletVmEventInfo info) {
+        slaAccumulator.onCloudletFinish(info);
+        cloudletResults.onCloudletFinish(info);
+    }
+
     private void slaReactiveMech (EventInfo evt) {
 
-        HashMap<String,Double> SLAMetrics = getSLAValues();
         if (true)
             /*
 
@@ -215,99 +264,32 @@ public class MyTestSLAReact {
              */
 
         if((int)evt.getTime() == 0){
-            System.out.println(SLAMetrics.get("MAXTime"));
+            System.out.println(sla.getMaxTaskCompletionTime());
         }
     }
 
-    private void slaViolations (List<Cloudlet> Cloudlets) {
-
-        //Initiating SLA Contract from CustomerSLA.json file
-        String file = "CustomerSLA.json";
-        SlaContract contract = SlaContract.getInstance(file);
-
-        //TaskCompletionMetric Values
-        final SlaMetric TaskCompletionMetric = contract.getTaskCompletionTimeMetric();
-        final SlaMetricDimension MAXTime = TaskCompletionMetric.getMaxDimension();
+    private void slaViolations () {
 
-        //Fault Tolerance Metric Values
-        final SlaMetric FaultToleranceMetric = contract.getFaultToleranceLevel();
-        final SlaMetricDimension MINFaultTol = contract.getFaultToleranceLevel().getMinDimension();
-
-        //Initializing Cloudlet List
-        List<Cloudlet> cloudletList = Cloudlets;
-
-        //Initiating Violation values
-        int totalTaskCompletionTimeViolations = 0;
-        int totalFaultToleranceViolations = 0;
-
-        //
-        for( int pos=0; pos<cloudletList.size(); pos++){
-
-            double totalTime = cloudletList.get(pos).getFinishTime() - cloudletList.get(pos).getArrivalTime(datacenter0);
-
-            //Increasing Task Completion Time Violations by one every time the total time of a cloudlet is greater
-            // than TaskCompletion maximum value given in the SLA Contract
-            if ( totalTime > MAXTime.getValue()){
-                totalTaskCompletionTimeViolations ++;
-            }
-
-
-        }
-
-        System.out.println("Total Sla Time Violations: " + totalTaskCompletionTimeViolations);
-        //System.out.println("Total Sla Time Violations: " + totalFaultToleranceViolations);
+        System.out.println("Total Sla Time Violations: " + slaAccumulator.getTaskCompletionTimeViolations());
+        System.out.println(slaAccumulator);
 
         //Checking if fault Tolerance commitement of  Customers SLA Contract has been violated
         /*
-        if (totalFaultToleranceViolations >= MINFaultTol.getValue()){
-            System.out.println("Total fault tolerance violations in the simulation : " + totalFaultToleranceViolations);
-            System.out.println("Fault Tolerance Level minimum valued aggreed on the SLA :" + MINFaultTol.getValue());
+        if (slaAccumulator.getFailedCloudlets() >= sla.getMinFaultTolerance()){
+            System.out.println("Total fault tolerance violations in the simulation : " + slaAccumulator.getFailedCloudlets());
+            System.out.println("Fault Tolerance Level minimum valued aggreed on the SLA :" + sla.getMinFaultTolerance());
             System.out.println("Contract was violated!");
         }
         */
-
-
-        //Debugging Line
-        //System.out.print(MAXTime.getValue());
     }
 
     /*
     /getSLAValues function gets all the values from CustomerSLA.json
-    /and stores them into a hash map so they can be accessed by the
-    /main program
+    /as a cached immutable snapshot, so the file is just parsed again
+    /when it is changed
      */
 
-    public HashMap<String, Double> getSLAValues(){
-
-
-        //Initiating SLA Contract from CustomerSLA.json file
-        String file = "CustomerSLA.json";
-        SlaContract contract = SlaContract.getInstance(file);
-
-        //TaskCompletionMetric Values
-        final SlaMetric TaskCompletionMetric = contract.getTaskCompletionTimeMetric();
-        final SlaMetricDimension MAXTime = TaskCompletionMetric.getMaxDimension();
-
-        //Fault Tolerance Metric Values
-        final SlaMetric FaultToleranceMetric = contract.getFaultToleranceLevel();
-        final SlaMetricDimension MINFaultTol = contract.getFaultToleranceLevel().getMinDimension();
-
-        //Availability Metric Values
-        final SlaMetric AvailabilityMetric = contract.getAvailabilityMetric();
-        final SlaMetricDimension MINAvailability = contract.getAvailabilityMetric().getMinDimension();
-
-        //CPU Utilization Metric Values
-        final SlaMetric CpuUtilMetric = contract.getCpuUtilizationMetric();
-        final SlaMetricDimension MAXCpuUtil = contract.getCpuUtilizationMetric().getMaxDimension();
-
-        HashMap<String,Double> SLAMetrics = new HashMap<String,Double>();
-        SLAMetrics.put("MAXTime", MAXTime.getValue());
-        SLAMetrics.put("MINFaultTol", MINFaultTol.getValue());
-        SLAMetrics.put("MINAvailability",MINAvailability.getValue());
-        SLAMetrics.put("MAXCpuUtil",MAXCpuUtil.getValue());
-
-        return SLAMetrics;
-
-
+    public SlaContractSnapshot getSLAValues(){
+        return SlaContractSnapshot.getInstance(SLA_CONTRACT_FILE);
     }
 }
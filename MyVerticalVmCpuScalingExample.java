@@ -29,6 +29,7 @@ import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.PeriodicTaskScheduler;
 import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
@@ -48,25 +49,32 @@ import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelStochastic;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.autoscaling.FaultAwareScalingController;
+import org.cloudsimplus.autoscaling.ForecastingThresholdProvider;
 import org.cloudsimplus.autoscaling.HorizontalVmScaling;
+import org.cloudsimplus.autoscaling.HybridVmAutoscaler;
 import org.cloudsimplus.autoscaling.VerticalVmScaling;
 import org.cloudsimplus.autoscaling.VerticalVmScalingSimple;
 import org.cloudsimplus.autoscaling.resources.ResourceScaling;
 import org.cloudsimplus.autoscaling.resources.ResourceScalingGradual;
 import org.cloudsimplus.autoscaling.resources.ResourceScalingInstantaneous;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
+import org.cloudsimplus.faultinjection.CloudletCheckpointModel;
+import org.cloudsimplus.faultinjection.FaultInjectionCloning;
 import org.cloudsimplus.faultinjection.HostFaultInjection;
 import org.cloudsimplus.faultinjection.VmClonerSimple;
 import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
-import org.cloudsimplus.slametrics.SlaContract;
-import org.cloudsimplus.slametrics.SlaMetric;
-import org.cloudsimplus.slametrics.SlaMetricDimension;
+import org.cloudsimplus.monitoring.VmUtilizationRecorder;
+import org.cloudsimplus.slametrics.SlaContractSnapshot;
+import org.cloudsimplus.util.AsyncLogSink;
+import org.cloudsimplus.util.AsyncLogSink.Level;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Comparator.comparingDouble;
 
@@ -76,8 +84,11 @@ import static java.util.Comparator.comparingDouble;
  * is set to each {@link #createListOfScalableVms(int) initially created VM}.
  * Every VM will check at {@link #SCHEDULING_INTERVAL specific time intervals}
  * if its PEs {@link #upperCpuUtilizationThreshold(Vm) are over or underloaded},
- * according to a <b>static computed utilization threshold</b>.
+ * according to a <b>utilization threshold moved by the forecast utilization</b> of the VM,
+ * so that PEs are scaled ahead of the predicted load.
  * Then it requests such PEs to be up or down scaled.
+ * VMs are only scaled up to {@link #VM_PE_CEILING} PEs; when a VM at the ceiling still violates the SLA,
+ * a {@link HybridVmAutoscaler} adds a new VM, which is destroyed after being idle for some time.
  *
  * <p>The example uses the CloudSim Plus {@link EventListener} feature
  * to enable monitoring the simulation and dynamically create objects such as Cloudlets and VMs at runtime.
@@ -114,10 +125,46 @@ public class MyVerticalVmCpuScalingExample {
     in a Poisson Process, which is also called event rate or rate parameter.*/
     private static final double MEAN_FAILURE_NUMBER_PER_HOUR = 0.01;
 
+    /**
+     * Execution time (in seconds) between checkpoints of Cloudlets
+     * and the time (in seconds) each checkpoint takes to be saved.
+     */
+    private static final double CHECKPOINT_INTERVAL = 600;
+    private static final double CHECKPOINT_OVERHEAD = 10;
+
     private HostFaultInjection fault;
 
+    /**
+     * Gives the length already executed by Cloudlets when they are cloned after a Host fault.
+     */
+    private final CloudletCheckpointModel checkpoints = new CloudletCheckpointModel(CHECKPOINT_INTERVAL, CHECKPOINT_OVERHEAD);
+
+    private static final String SLA_CONTRACT_FILE = "CustomerSLA.json";
+
+    /**
+     * The SLA values, loaded just once and shared by all listeners.
+     */
+    private final SlaContractSnapshot sla;
+
     private long hostFaults = 0;
 
+    /**
+     * Number of Host faults per hour that makes VM scaling controllers reach their maximum level.
+     */
+    private static final double SCALING_FAULT_RATE_LIMIT = 0.5;
+
+    /**
+     * Minimum times (in seconds) the level of a VM scaling controller is kept
+     * before going up or down again.
+     */
+    private static final double SCALING_UP_COOLDOWN = 10;
+    private static final double SCALING_DOWN_COOLDOWN = 120;
+
+    /**
+     * Adapts the vertical scaling of each VM to Host faults and SLA headroom.
+     */
+    private final Map<Vm, FaultAwareScalingController> scalingControllers = new HashMap<>();
+
     /**
      * The Poisson Random Number Generator used to generate failure times (in hours).
      */
@@ -125,11 +172,28 @@ public class MyVerticalVmCpuScalingExample {
 
     //
     private static final int SCHEDULING_INTERVAL = 1;
-    private static final int HOSTS = 1;
+    private static final int HOSTS = 4;
 
     private static final int HOST_PES = 32;
     private static final int VMS = 1;
     private static final int VM_PES = 14;
+
+    /**
+     * Maximum number of PEs a VM can be vertically scaled up to.
+     * After that, new VMs are created by horizontal scaling.
+     */
+    private static final int VM_PE_CEILING = 16;
+    private static final int MAX_HORIZONTALLY_ADDED_VMS = 6;
+
+    /**
+     * Time (in seconds) a VM created by horizontal scaling must be idle to be destroyed.
+     */
+    private static final double IDLE_VM_DESTRUCTION_DELAY = 10;
+
+    /**
+     * Scales VMs vertically up to the {@link #VM_PE_CEILING} and then horizontally, according to the SLA.
+     */
+    private HybridVmAutoscaler autoscaler;
     private static final int VM_RAM = 1200;
     private final CloudSim simulation;
     private DatacenterBroker broker0;
@@ -143,6 +207,36 @@ public class MyVerticalVmCpuScalingExample {
 
     private int createsVms;
 
+    /**
+     * Formats and prints the per-tick VM usage and the SLA messages
+     * out of the simulation thread.
+     */
+    private final AsyncLogSink log = new AsyncLogSink(Level.INFO);
+    private final int vmUsageFormat = log.registerFormat(
+        "\t\tTime %6.1f: Vm %d CPU Usage: %6.2f%% (%2d vCPUs. Running Cloudlets: #%d). RAM usage: %.2f%% (%d MB)%n");
+    private final int availabilityViolationFormat =
+        log.registerFormat("Availability SLA Condition has been violated!  Current Availability: %s%n");
+    private final int vmFaultsFormat = log.registerFormat("Last Moment Vm Faults: %d%nCurrent Vm Faults: %d%n");
+    private final int hostFaultsFormat = log.registerFormat("Last Moment Host Faults: %d%nCurrent Host Faults: %d%n");
+    private final int scalingFactorFormat = log.registerFormat("Vm %d Scaling Factor:%s (level %d)%n");
+
+    /**
+     * Keeps the VM usage along the simulation, which is summarized after it finishes.
+     */
+    private final VmUtilizationRecorder utilizationRecorder = new VmUtilizationRecorder();
+
+    /**
+     * Time (in seconds) ahead the CPU utilization of VMs is forecast to define the scaling thresholds.
+     */
+    private static final double CPU_FORECAST_HORIZON = 5;
+
+    /**
+     * Forecasts the CPU utilization of each VM to define its scaling thresholds,
+     * whose base values are the previous static thresholds (0.1 and 0.5).
+     */
+    private final ForecastingThresholdProvider cpuThresholds =
+        new ForecastingThresholdProvider(0.5, 0.3, CPU_FORECAST_HORIZON, 0.1, 0.5);
+
     public static void main(String[] args) {
         new MyVerticalVmCpuScalingExample();
     }
@@ -160,10 +254,16 @@ public class MyVerticalVmCpuScalingExample {
         cloudletList = new ArrayList<>(CLOUDLETS);
 
         simulation = new CloudSim();
+        sla = getSLAValues();
         simulation.addOnClockTickListener(this::onClockTickListener);
 
         datacenter0 = createDatacenter();
         broker0 = new DatacenterBrokerSimple(simulation);
+        autoscaler = new HybridVmAutoscaler(
+            broker0, this::createScalableVm, VM_PE_CEILING,
+            sla.getMaxCpuUtilization() / 100, sla.getMaxTaskCompletionTime(),
+            MAX_HORIZONTALLY_ADDED_VMS, IDLE_VM_DESTRUCTION_DELAY)
+            .install(new PeriodicTaskScheduler(simulation));
 
         vmList.addAll(createListOfScalableVms(VMS));
 
@@ -176,6 +276,7 @@ public class MyVerticalVmCpuScalingExample {
         simulation.addOnClockTickListener(this::slaReactiveMech);
 
         simulation.start();
+        log.close();
 
         printSimulationResults();
     }
@@ -185,13 +286,17 @@ public class MyVerticalVmCpuScalingExample {
      * @param evt information about the event happened (that for this Listener is just the simulation time)
      */
     private void onClockTickListener(EventInfo evt) {
-        vmList.forEach(vm ->
-            System.out.printf(
-                "\t\tTime %6.1f: Vm %d CPU Usage: %6.2f%% (%2d vCPUs. Running Cloudlets: #%d). RAM usage: %.2f%% (%d MB)%n",
+        utilizationRecorder.recordAll(evt.getTime(), broker0.getVmExecList());
+        if(!log.isEnabled(Level.INFO)) {
+            return;
+        }
+
+        for (final Vm vm : broker0.getVmExecList()) {
+            log.log(Level.INFO, vmUsageFormat,
                 evt.getTime(), vm.getId(), vm.getCpuPercentUtilization()*100.0, vm.getNumberOfPes(),
                 vm.getCloudletScheduler().getCloudletExecList().size(),
-                vm.getRam().getPercentUtilization()*100, vm.getRam().getAllocatedResource())
-        );
+                vm.getRam().getPercentUtilization()*100, vm.getRam().getAllocatedResource());
+        }
     }
 
     private void printSimulationResults() {
@@ -201,6 +306,15 @@ public class MyVerticalVmCpuScalingExample {
         finishedCloudlets.sort(sortByVmId.thenComparing(sortByStartTime));
 
         new CloudletsTableBuilder(finishedCloudlets).build();
+
+        for (final VmUtilizationRecorder.Series series : utilizationRecorder.getSeriesByVmId().values()) {
+            System.out.printf(
+                "Vm %d: %d usage samples, peak CPU usage %.2f%% (%d windows of %.0f seconds kept)%n",
+                series.getVmId(), series.getTotalSamples(), series.getPeakCpu()*100,
+                series.getWindowCount(), utilizationRecorder.getWindowSeconds());
+        }
+
+        System.out.printf("VMs created by horizontal scaling: %d%n", autoscaler.getTotalAddedVms());
     }
 
     /**
@@ -244,14 +358,24 @@ public class MyVerticalVmCpuScalingExample {
     private List<Vm> createListOfScalableVms(final int numberOfVms) {
         List<Vm> newList = new ArrayList<>(numberOfVms);
         for (int i = 0; i < numberOfVms; i++) {
-            Vm vm = createVm();
-            vm.setPeVerticalScaling(createVerticalPeScaling());
-            newList.add(vm);
+            newList.add(autoscaler.enable(createScalableVm()));
         }
 
         return newList;
     }
 
+    /**
+     * Creates a VM which is able to scale vertically,
+     * which is also used to create VMs by horizontal scaling.
+     *
+     * @return the created Vm
+     */
+    private Vm createScalableVm() {
+        final Vm vm = createVm();
+        vm.setPeVerticalScaling(createVerticalPeScaling());
+        return vm;
+    }
+
     /**
      * Creates a Vm object.
      *
@@ -285,7 +409,7 @@ public class MyVerticalVmCpuScalingExample {
      *
      * @see #createListOfScalableVms(int)
      */
-    private VerticalVmScaling createVerticalPeScaling() {
+    private VerticalVmScalingSimple createVerticalPeScaling() {
         //The percentage in which the number of PEs has to be scaled
         final double scalingFactor = 0.1;
         VerticalVmScalingSimple verticalCpuScaling = new VerticalVmScalingSimple(Processor.class, scalingFactor);
@@ -310,7 +434,8 @@ public class MyVerticalVmCpuScalingExample {
          * using the available ones such as the {@link ResourceScalingGradual}
          * or {@link ResourceScalingInstantaneous}.
          */
-        verticalCpuScaling.setResourceScaling(vs -> 2*vs.getScalingFactor()*vs.getAllocatedResource());
+        verticalCpuScaling.setResourceScaling(
+            autoscaler.limitToPeCeiling(vs -> 2*vs.getScalingFactor()*vs.getAllocatedResource()));
 
         verticalCpuScaling.setLowerThresholdFunction(this::lowerCpuUtilizationThreshold);
         verticalCpuScaling.setUpperThresholdFunction(this::upperCpuUtilizationThreshold);
@@ -318,75 +443,34 @@ public class MyVerticalVmCpuScalingExample {
         return verticalCpuScaling;
     }
 
-    private VerticalVmScaling createVerticalPeScalingAfterASL(int numberOfFault) {
-        //The percentage in which the number of PEs has to be scaled
-        final double scalingFactor = 0.1*(numberOfFault);
-        VerticalVmScalingSimple verticalCpuScaling = new VerticalVmScalingSimple(Processor.class, scalingFactor);
-
-        /* By uncommenting the line below, you will see that, instead of gradually
-         * increasing or decreasing the number of PEs, when the scaling object detects
-         * the CPU usage is above or below the defined thresholds,
-         * it will automatically calculate the number of PEs to add/remove to
-         * move the VM from the over or underload condition.
-         */
-        verticalCpuScaling.setResourceScaling(new ResourceScalingInstantaneous());
-
-        /** Different from the commented line above, the line below implements a ResourceScaling using a Lambda Expression.
-         * It is just an example which scales the resource twice the amount defined by the scaling factor
-         * defined in the constructor.
-         *
-         * Realize that if the setResourceScaling method is not called, a ResourceScalingGradual will be used,
-         * which scales the resource according to the scaling factor.
-         * The lower and upper thresholds after this line can also be defined using a Lambda Expression.
-         *
-         * So, here we are defining our own {@link ResourceScaling} instead of
-         * using the available ones such as the {@link ResourceScalingGradual}
-         * or {@link ResourceScalingInstantaneous}.
-         */
-        verticalCpuScaling.setResourceScaling(vs -> 2*vs.getScalingFactor()*vs.getAllocatedResource());
-
-        verticalCpuScaling.setLowerThresholdFunction(this::lowerCpuUtilizationThresholdAfterSLA);
-        verticalCpuScaling.setUpperThresholdFunction(this::upperCpuUtilizationThresholdAfterSLA);
-
-        return verticalCpuScaling;
-    }
-
-    private double lowerCpuUtilizationThresholdAfterSLA(Vm vm) {
-        return 0.1;
-    }
-    private double upperCpuUtilizationThresholdAfterSLA(Vm vm) {
-        return 0.85;
-    }
     /**
      * Defines the minimum CPU utilization percentage that indicates a Vm is underloaded.
-     * This function is using a statically defined threshold, but it would be defined
-     * a dynamic threshold based on any condition you want.
+     * This function lowers the threshold when the VM utilization is forecast to grow
+     * (and raises it when it's forecast to drop), so that the VM is underloaded when
+     * its forecast utilization is under 10%.
      * A reference to this method is assigned to each Vertical VM Scaling created.
      *
      * @param vm the VM to check if its CPU is underloaded.
-     *        <b>The parameter is not being used internally, which means the same
-     *        threshold is used for any Vm.</b>
      * @return the lower CPU utilization threshold
      * @see #createVerticalPeScaling()
      */
     private double lowerCpuUtilizationThreshold(Vm vm) {
-        return 0.1;
+        return cpuThresholds.lowerThreshold(vm);
     }
 
     /**
      * Defines the maximum CPU utilization percentage that indicates a Vm is overloaded.
-     * This function is using a statically defined threshold, but it would be defined
-     * a dynamic threshold based on any condition you want.
+     * This function lowers the threshold when the VM utilization is forecast to grow,
+     * so that the VM is overloaded when its forecast utilization is over 50%
+     * and PEs are added before the load arrives.
      * A reference to this method is assigned to each Vertical VM Scaling created.
      *
      * @param vm the VM to check if its CPU is overloaded.
-     *        The parameter is not being used internally, that means the same
-     *        threshold is used for any Vm.
      * @return the upper CPU utilization threshold
      * @see #createVerticalPeScaling()
      */
     private double upperCpuUtilizationThreshold(Vm vm) {
-        return 0.5;
+        return cpuThresholds.upperThreshold(vm);
     }
 
     /**
@@ -487,8 +571,7 @@ public class MyVerticalVmCpuScalingExample {
     }
 
     /**
-     * Clones a VM by creating another one with the same configurations of a
-     * given VM.
+     * Clones a VM using {@link FaultInjectionCloning#cloneVm(Vm)}.
      *
      * @param vm the VM to be cloned
      * @return the cloned (new) VM.
@@ -496,30 +579,17 @@ public class MyVerticalVmCpuScalingExample {
      * @see #createFaultInjectionForHosts(Datacenter)
      */
     private Vm cloneVm(Vm vm) {
-        Vm clone = new VmSimple(vm.getMips(), (int) vm.getNumberOfPes());
-        /*It' not required to set an ID for the clone.
-        It is being set here just to make it easy to
-        relate the ID of the vm to its clone,
-        since the clone ID will be 10 times the id of its
-        source VM.*/
-        clone.setId(vm.getId() * 10);
-        clone.setDescription("Clone of VM " + vm.getId());
-        clone
-            .setSize(vm.getStorage().getCapacity())
-            .setBw(vm.getBw().getCapacity())
-            .setRam(vm.getBw().getCapacity())
-            .setCloudletScheduler(new CloudletSchedulerTimeShared());
+        final Vm clone = FaultInjectionCloning.cloneVm(vm);
         System.out.printf("%n%n# Cloning %s - MIPS %.2f Number of Pes: %d%n", vm, clone.getMips(), clone.getNumberOfPes());
 
         return clone;
     }
 
     /**
-     * Clones each Cloudlet associated to a given VM. The method is called when
-     * a VM is destroyed due to a Host failure and a snapshot from that VM (a
-     * clone) is started into another Host. In this case, all the Cloudlets
-     * which were running inside the destroyed VM will be recreated from scratch
-     * into the VM clone, re-starting their execution from the beginning.
+     * Clones each Cloudlet associated to a given VM using
+     * {@link FaultInjectionCloning#cloneCloudlets(Vm, CloudletCheckpointModel)}.
+     * The method is called when a VM is destroyed due to a Host failure and a snapshot from that VM (a
+     * clone) is started into another Host, resuming each Cloudlet from its last checkpoint.
      *
      * @param sourceVm the VM to clone its Cloudlets
      * @return the List of cloned Cloudlets.
@@ -527,120 +597,102 @@ public class MyVerticalVmCpuScalingExample {
      * #createFaultInjectionForHosts(Datacenter)
      */
     private List<Cloudlet> cloneCloudlets(Vm sourceVm) {
-        final List<Cloudlet> sourceVmCloudlets = sourceVm.getCloudletScheduler().getCloudletList();
-        final List<Cloudlet> clonedCloudlets = new ArrayList<>(sourceVmCloudlets.size());
-        for (Cloudlet cl : sourceVmCloudlets) {
-            Cloudlet clone = cloneCloudlet(cl);
-            clonedCloudlets.add(clone);
+        final List<Cloudlet> clonedCloudlets = FaultInjectionCloning.cloneCloudlets(sourceVm, checkpoints);
+        for (Cloudlet clone : clonedCloudlets) {
             System.out.printf("# Created Cloudlet Clone for %s (Cloned Cloudlet Id: %d)%n", sourceVm, clone.getId());
         }
 
         return clonedCloudlets;
     }
 
-    /**
-     * Creates a clone from a given Cloudlet.
-     *
-     * @param source the Cloudlet to be cloned.
-     * @return the cloned (new) cloudlet
-     */
-    private Cloudlet cloneCloudlet(Cloudlet source) {
-        Cloudlet clone = new CloudletSimple(source.getLength(), source.getNumberOfPes());
-        /*It' not required to set an ID for the clone.
-        It is being set here just to make it easy to
-        relate the ID of the cloudlet to its clone,
-        since the clone ID will be 10 times the id of its
-        source cloudlet.*/
-        clone.setId(source.getId() * 10);
-        clone
-            .setUtilizationModelBw(source.getUtilizationModelBw())
-            .setUtilizationModelCpu(source.getUtilizationModelCpu())
-            .setUtilizationModelRam(source.getUtilizationModelRam());
-        return clone;
-    }
-
     private void slaReactiveMech (EventInfo evt) {
-        List<Vm> vmList2 = new ArrayList<>(VMS);
-        List<Cloudlet> cloudletListRE = new ArrayList<>(CLOUDLETS);
-        HashMap<String,Double> SLAMetrics = getSLAValues();
+        if(fault == null) {
+            //There is no fault injection, so the SLA availability is always met
+            updateScalingControllers(evt.getTime(), 0, 1);
+            return;
+        }
+
         long NumberOfFaults =0 ;
 
 
         //Provisioning
 
-        if (fault.availability()*100<= SLAMetrics.get("MINAvailability")){
-            System.out.println("Availability SLA Condition has been violated!  Current Availability: " + fault.availability());
+        if (fault.availability()*100<= sla.getMinAvailability()){
+            log.log(Level.INFO, availabilityViolationFormat, fault.availability());
         }
 
         if (fault.getNumberOfFaults() > NumberOfFaults){
-            System.out.println("Last Moment Vm Faults: " + NumberOfFaults); //Debugging
+            log.log(Level.DEBUG, vmFaultsFormat, NumberOfFaults, fault.getNumberOfFaults());
             NumberOfFaults = fault.getNumberOfFaults();
-            System.out.println("Current Vm Faults: " + NumberOfFaults); //Debugging
         }
 
         if (fault.getNumberOfHostFaults() > this.hostFaults){
-            System.out.println("Last Moment Host Faults: " + this.hostFaults); //Debugging
+            log.log(Level.INFO, hostFaultsFormat, this.hostFaults, fault.getNumberOfHostFaults());
             this.hostFaults = fault.getNumberOfHostFaults();
-            System.out.println("Current Host Faults: " + this.hostFaults); //Debugging
 
             //Debugging
             //System.out.println("Cpu Util On VM:");
             //System.out.println(broker0.getVmCreatedList().get(0).getCpuPercentUtilization());
 
-            //Track Vm Status during execution
-            System.out.println("Vm created list:" + broker0.getVmCreatedList());
-            System.out.println("Vm failed list:" + broker0.getVmFailedList());
-            System.out.println("Vm exec list:" + broker0.getVmExecList());
-
-
-            if(broker0.getVmCreatedList() != null && broker0.getVmExecList().size() != 0 ) {
-                broker0.getVmCreatedList().get(0).setPeVerticalScaling(createVerticalPeScalingAfterASL(((int) this.hostFaults)));
-                System.out.println("Scaling Factor:" + broker0.getVmCreatedList().get(0).getPeVerticalScaling().getScalingFactor());
+            //Track Vm Status during execution (the lists are just converted to String if they will be printed)
+            if(log.isEnabled(Level.DEBUG)) {
+                log.log(Level.DEBUG, "Vm created list:" + broker0.getVmCreatedList());
+                log.log(Level.DEBUG, "Vm failed list:" + broker0.getVmFailedList());
+                log.log(Level.DEBUG, "Vm exec list:" + broker0.getVmExecList());
             }
-
-            if(broker0.getVmExecList().size() == 0 && broker0.getVmCreatedList().get(0).getPeVerticalScaling().getScalingFactor() != 0.1 ){
-                System.out.println("There are no exec vms! Scaling factor has been resetted!");
-                broker0.getVmCreatedList().get(0).setPeVerticalScaling(createVerticalPeScaling());
-                System.out.println("Scaling Factor:" + broker0.getVmCreatedList().get(0).getPeVerticalScaling().getScalingFactor());
-            }
-
         }
 
-
-
+        final double minAvailability = sla.getMinAvailability();
+        final double availabilityHeadroom = minAvailability >= 100 ? 1 :
+            (fault.availability()*100 - minAvailability) / (100 - minAvailability);
+        updateScalingControllers(evt.getTime(), this.hostFaults, availabilityHeadroom);
     }
 
-    public HashMap<String, Double> getSLAValues(){
-
-
-        //Initiating SLA Contract from CustomerSLA.json file
-        String file = "CustomerSLA.json";
-        SlaContract contract = SlaContract.getInstance(file);
-
-        //TaskCompletionMetric Values
-        final SlaMetric TaskCompletionMetric = contract.getTaskCompletionTimeMetric();
-        final SlaMetricDimension MAXTime = TaskCompletionMetric.getMaxDimension();
-
-        //Fault Tolerance Metric Values
-        final SlaMetric FaultToleranceMetric = contract.getFaultToleranceLevel();
-        final SlaMetricDimension MINFaultTol = contract.getFaultToleranceLevel().getMinDimension();
-
-        //Availability Metric Values
-        final SlaMetric AvailabilityMetric = contract.getAvailabilityMetric();
-        final SlaMetricDimension MINAvailability = contract.getAvailabilityMetric().getMinDimension();
-
-        //CPU Utilization Metric Values
-        final SlaMetric CpuUtilMetric = contract.getCpuUtilizationMetric();
-        final SlaMetricDimension MAXCpuUtil = contract.getCpuUtilizationMetric().getMaxDimension();
-
-        HashMap<String,Double> SLAMetrics = new HashMap<String,Double>();
-        SLAMetrics.put("MAXTime", MAXTime.getValue());
-        SLAMetrics.put("MINFaultTol", MINFaultTol.getValue());
-        SLAMetrics.put("MINAvailability",MINAvailability.getValue());
-        SLAMetrics.put("MAXCpuUtil",MAXCpuUtil.getValue());
+    /**
+     * Adapts the vertical scaling of every running VM to the current Host faults and SLA headroom.
+     * VMs without a controller (such as clones of VMs destroyed by Host faults) get one.
+     *
+     * @param time the current simulation time
+     * @param faults the number of Host faults up to now
+     * @param slaHeadroom how far the SLA availability is from being violated, from 0 to 1
+     */
+    private void updateScalingControllers(final double time, final long faults, final double slaHeadroom) {
+        for (final Vm vm : broker0.getVmExecList()) {
+            final FaultAwareScalingController controller = scalingControllers.computeIfAbsent(vm, this::createScalingController);
+            if(controller.update(time, faults, slaHeadroom)) {
+                log.log(Level.INFO, scalingFactorFormat, vm.getId(), controller.getScaling().getScalingFactor(), controller.getLevel());
+            }
+        }
+    }
 
-        return SLAMetrics;
+    /**
+     * Creates a controller for the vertical scaling of a VM,
+     * setting a new scaling to the VM if it has none.
+     *
+     * @param vm the VM to create a controller
+     * @return the new controller
+     */
+    private FaultAwareScalingController createScalingController(final Vm vm) {
+        final VerticalVmScalingSimple scaling;
+        if(vm.getPeVerticalScaling() instanceof VerticalVmScalingSimple) {
+            scaling = (VerticalVmScalingSimple) vm.getPeVerticalScaling();
+        } else {
+            scaling = createVerticalPeScaling();
+            vm.setPeVerticalScaling(scaling);
+        }
 
+        return new FaultAwareScalingController(scaling)
+            .setFaultRateLimit(SCALING_FAULT_RATE_LIMIT, 3600)
+            .setCooldown(SCALING_UP_COOLDOWN, SCALING_DOWN_COOLDOWN);
+    }
 
+    /**
+     * Gets the values from the {@link #SLA_CONTRACT_FILE} as a cached immutable snapshot,
+     * so the file is just parsed again when it is changed.
+     *
+     * @return the SLA contract snapshot
+     */
+    public SlaContractSnapshot getSLAValues(){
+        return SlaContractSnapshot.getInstance(SLA_CONTRACT_FILE);
     }
 }
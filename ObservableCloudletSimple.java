@@ -0,0 +1,96 @@
+package org.cloudbus.cloudsim.cloudlets;
+
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link CloudletSimple} that notifies listeners every time its {@link Status} changes,
+ * enabling structures such as the {@link CloudletStatusRegistry} to be kept up to date
+ * without scanning the Cloudlets.
+ */
+public class ObservableCloudletSimple extends CloudletSimple {
+    /**
+     * Listeners notified when the status changes, receiving the Cloudlet and its previous status.
+     * It's initialized lazily because the super constructor may change the status
+     * before the fields of this class are initialized.
+     */
+    private List<BiConsumer<Cloudlet, Status>> onStatusChangeListeners;
+
+    /**
+     * Creates a Cloudlet with no priority or id. The id is defined when the Cloudlet is submitted to
+     * a {@link org.cloudbus.cloudsim.brokers.DatacenterBroker}.
+     *
+     * @param length the length or size (in MI) of this cloudlet to be executed in a VM
+     * @param pesNumber number of PEs that Cloudlet will require
+     */
+    public ObservableCloudletSimple(final long length, final int pesNumber) {
+        super(length, pesNumber);
+    }
+
+    /**
+     * Creates a Cloudlet with no priority or id and the same utilization model for CPU, RAM and BW.
+     * The id is defined when the Cloudlet is submitted to
+     * a {@link org.cloudbus.cloudsim.brokers.DatacenterBroker}.
+     *
+     * @param length the length or size (in MI) of this cloudlet to be executed in a VM
+     * @param pesNumber number of PEs that Cloudlet will require
+     * @param utilizationModel a {@link UtilizationModel} to define how the Cloudlet uses CPU, RAM and BW
+     */
+    public ObservableCloudletSimple(final long length, final int pesNumber, final UtilizationModel utilizationModel) {
+        super(length, pesNumber, utilizationModel);
+    }
+
+    /**
+     * Creates a Cloudlet with no priority.
+     *
+     * @param id the unique ID of this cloudlet
+     * @param length the length or size (in MI) of this cloudlet to be executed in a VM
+     * @param pesNumber number of PEs that Cloudlet will require
+     */
+    public ObservableCloudletSimple(final long id, final long length, final long pesNumber) {
+        super(id, length, pesNumber);
+    }
+
+    @Override
+    public boolean setStatus(final Status newStatus) {
+        final Status previousStatus = getStatus();
+        final boolean changed = super.setStatus(newStatus);
+        if(onStatusChangeListeners != null && previousStatus != getStatus()) {
+            for (final BiConsumer<Cloudlet, Status> listener : onStatusChangeListeners) {
+                listener.accept(this, previousStatus);
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Adds a listener to be notified every time the status of this Cloudlet changes.
+     *
+     * @param listener the listener to add, which receives this Cloudlet and its previous status
+     *                 (the current status can be got from the Cloudlet)
+     * @return this Cloudlet
+     */
+    public ObservableCloudletSimple addOnStatusChangeListener(final BiConsumer<Cloudlet, Status> listener) {
+        if(onStatusChangeListeners == null) {
+            onStatusChangeListeners = new ArrayList<>(2);
+        }
+
+        onStatusChangeListeners.add(Objects.requireNonNull(listener));
+        return this;
+    }
+
+    /**
+     * Removes a listener from the status change listener list.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was removed, false otherwise
+     */
+    public boolean removeOnStatusChangeListener(final BiConsumer<Cloudlet, Status> listener) {
+        return onStatusChangeListeners != null && onStatusChangeListeners.remove(listener);
+    }
+}
@@ -0,0 +1,223 @@
+package org.cloudsimplus.examples;
+
+import org.cloudsimplus.builders.tables.TableBuilderAbstract;
+import org.cloudsimplus.builders.tables.TableColumn;
+import org.cloudsimplus.slametrics.LatencyHistogram;
+import org.cloudsimplus.slametrics.SlaViolationAccumulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs an example scenario for every point of a grid of {@link ScenarioParameters},
+ * using all available cores, and collects the SLA results of all runs into a single table.
+ *
+ * <p>Each point runs in an isolated {@link org.cloudbus.cloudsim.core.CloudSim} instance
+ * created by the scenario, so points don't share any simulation state and can run in parallel.
+ * Scenarios are expected to not print anything while running inside a sweep
+ * (see {@link MyTestSLAReact#run(ScenarioParameters)}).</p>
+ *
+ * <p>{@link MyTestSLAReact} is the only scenario that takes {@link ScenarioParameters} yet.
+ * {@code MyTest3} writes its results to fixed file paths, which parallel runs would overwrite,
+ * and the fault injection scenarios are replicated by seed through a {@link FaultInjectionReplicationRunner}
+ * instead, so they still use their own constants.</p>
+ *
+ * <p>The number of finished Cloudlets of a point is usually greater than its number of Cloudlets,
+ * since {@link MyTestSLAReact} also submits 2 dynamic Cloudlets at each clock tick around 5 and 10 seconds.
+ * Their lengths aren't seeded, so that number and the times change a little between sweeps.</p>
+ */
+public class ParameterSweepRunner {
+    private static final int[] HOSTS = {1, 2, 4};
+    private static final int[] VMS = {4, 8, 16};
+    private static final int[] CLOUDLETS = {120, 480, 1920};
+
+    private final Function<ScenarioParameters, SlaViolationAccumulator> scenario;
+    private final int parallelism;
+
+    public static void main(String[] args) {
+        //Log.setLevel(ch.qos.logback.classic.Level.WARN);
+
+        List<ScenarioParameters> grid = Collections.singletonList(ScenarioParameters.DEFAULT);
+        grid = expand(grid, HOSTS, ScenarioParameters::withHosts);
+        grid = expand(grid, VMS, ScenarioParameters::withVms);
+        grid = expand(grid, CLOUDLETS, ScenarioParameters::withCloudlets);
+        grid = grid.stream().filter(ScenarioParameters::isVmPesFitInHosts).collect(Collectors.toList());
+
+        final ParameterSweepRunner runner = new ParameterSweepRunner(MyTestSLAReact::run);
+        System.out.printf("Running %d scenarios on %d threads%n", grid.size(), runner.getParallelism());
+        new SweepResultTableBuilder(runner.run(grid)).build();
+    }
+
+    /**
+     * Creates a runner using one thread for each available core.
+     *
+     * @param scenario a function that runs a scenario for the given parameters and returns its SLA results
+     */
+    public ParameterSweepRunner(final Function<ScenarioParameters, SlaViolationAccumulator> scenario) {
+        this(scenario, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a runner.
+     *
+     * @param scenario a function that runs a scenario for the given parameters and returns its SLA results
+     * @param parallelism the maximum number of scenarios to run at the same time
+     */
+    public ParameterSweepRunner(
+        final Function<ScenarioParameters, SlaViolationAccumulator> scenario, final int parallelism)
+    {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than zero.");
+        }
+
+        this.scenario = scenario;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Builds a grid by combining every given point with every given value of one parameter.
+     *
+     * @param points the points of the grid built so far
+     * @param values the values of the parameter to combine with each point
+     * @param setter a function that returns a copy of a point with the parameter changed (such as {@link ScenarioParameters#withVms(int)})
+     * @return a new grid with {@code points.size() * values.length} points
+     */
+    public static List<ScenarioParameters> expand(
+        final List<ScenarioParameters> points, final int[] values,
+        final BiFunction<ScenarioParameters, Integer, ScenarioParameters> setter)
+    {
+        final List<ScenarioParameters> grid = new ArrayList<>(points.size() * values.length);
+        for (final ScenarioParameters point : points) {
+            for (final int value : values) {
+                grid.add(setter.apply(point, value));
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Runs the scenario for each point, with at most {@link #getParallelism()} points running at the same time.
+     *
+     * @param points the parameters of each run
+     * @return the results of each run, in the same order of the given points
+     */
+    public List<SweepResult> run(final List<ScenarioParameters> points) {
+        final List<Callable<SweepResult>> tasks = new ArrayList<>(points.size());
+        for (final ScenarioParameters params : points) {
+            tasks.add(() -> runPoint(params));
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final List<SweepResult> results = new ArrayList<>(points.size());
+            for (final Future<SweepResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The parameter sweep was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A scenario of the parameter sweep failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private SweepResult runPoint(final ScenarioParameters params) {
+        final long start = System.nanoTime();
+        final SlaViolationAccumulator accumulator = scenario.apply(params);
+        return new SweepResult(params, accumulator, (System.nanoTime() - start) / 1e9);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The SLA results of running a scenario for a point of the parameter sweep.
+     */
+    public static final class SweepResult {
+        private final ScenarioParameters params;
+        private final SlaViolationAccumulator accumulator;
+        private final double wallClockSeconds;
+
+        private SweepResult(
+            final ScenarioParameters params, final SlaViolationAccumulator accumulator, final double wallClockSeconds)
+        {
+            this.params = params;
+            this.accumulator = accumulator;
+            this.wallClockSeconds = wallClockSeconds;
+        }
+
+        public ScenarioParameters getParams() {
+            return params;
+        }
+
+        public SlaViolationAccumulator getAccumulator() {
+            return accumulator;
+        }
+
+        public LatencyHistogram getTotalTimeHistogram() {
+            return accumulator.getTotalTimeHistogram();
+        }
+
+        /**
+         * @return the real time the run took, in seconds
+         */
+        public double getWallClockSeconds() {
+            return wallClockSeconds;
+        }
+    }
+
+    /**
+     * Builds a table with one row for each point of a parameter sweep.
+     */
+    private static class SweepResultTableBuilder extends TableBuilderAbstract<SweepResult> {
+        private static final String TIME_FORMAT = "%.2f";
+        private static final String SECONDS = "Seconds";
+
+        SweepResultTableBuilder(final List<SweepResult> results) {
+            super(results);
+            setTitle("PARAMETER SWEEP RESULTS");
+        }
+
+        @Override
+        protected void createTableColumns() {
+            addColumnDataFunction(getTable().addColumn("Hosts"), r -> r.getParams().getHosts());
+            addColumnDataFunction(getTable().addColumn("VMs"), r -> r.getParams().getVms());
+            addColumnDataFunction(getTable().addColumn("VM PEs"), r -> r.getParams().getVmPes());
+            addColumnDataFunction(getTable().addColumn("Cloudlets"), r -> r.getParams().getCloudlets());
+            addColumnDataFunction(getTable().addColumn("Finished"), r -> r.getAccumulator().getFinishedCloudlets());
+            addColumnDataFunction(getTable().addColumn("Violations"), r -> r.getAccumulator().getTaskCompletionTimeViolations());
+
+            TableColumn col = getTable().addColumn("Violations", "%").setFormat(TIME_FORMAT);
+            addColumnDataFunction(col, r -> r.getAccumulator().getTaskCompletionTimeViolationRate() * 100);
+
+            col = getTable().addColumn("Mean Time", SECONDS).setFormat(TIME_FORMAT);
+            addColumnDataFunction(col, r -> r.getAccumulator().getMeanTotalTime());
+
+            col = getTable().addColumn("p50 Time", SECONDS).setFormat(TIME_FORMAT);
+            addColumnDataFunction(col, r -> r.getTotalTimeHistogram().percentile(50));
+
+            col = getTable().addColumn("p95 Time", SECONDS).setFormat(TIME_FORMAT);
+            addColumnDataFunction(col, r -> r.getTotalTimeHistogram().percentile(95));
+
+            col = getTable().addColumn("p99 Time", SECONDS).setFormat(TIME_FORMAT);
+            addColumnDataFunction(col, r -> r.getTotalTimeHistogram().percentile(99));
+
+            col = getTable().addColumn("Wall Clock", SECONDS).setFormat(TIME_FORMAT);
+            addColumnDataFunction(col, SweepResult::getWallClockSeconds);
+        }
+    }
+}
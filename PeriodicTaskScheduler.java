@@ -0,0 +1,180 @@
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.listeners.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A simulation entity that runs tasks at fixed simulated time intervals,
+ * by sending itself one future event for each task execution.
+ *
+ * <p>It replaces clock tick listeners that run at every tick just to check
+ * if the time is a multiple of some interval (such as {@code evt.getTime() % 5 == 0}).
+ * Such checks are paid by every listener at every tick and silently fail when the clock
+ * lands on values such as 4.9999.
+ * Here, a task is just called at the times it is due, which are computed as
+ * {@code phase + n * interval} to avoid accumulating floating-point errors.</p>
+ *
+ * <p>Tasks stop being rescheduled when there is no other future event in the simulation,
+ * so that periodic tasks don't keep an otherwise finished simulation running forever.</p>
+ */
+public class PeriodicTaskScheduler extends CloudSimEntity {
+    /**
+     * The tag of the events this entity sends to itself to run periodic tasks.
+     */
+    public static final int PERIODIC_TASK = 1_000_001;
+
+    private final List<PeriodicTask> tasks = new ArrayList<>();
+    private boolean started;
+
+    public PeriodicTaskScheduler(final Simulation simulation) {
+        super(simulation);
+    }
+
+    /**
+     * Schedules a task to run at every interval, starting at time zero.
+     *
+     * @param interval the simulated time (in seconds) between task executions
+     * @param task the task to run, which receives the time it was run
+     * @return the scheduled task, which can be {@link PeriodicTask#cancel() cancelled}
+     */
+    public PeriodicTask schedule(final double interval, final EventListener<EventInfo> task) {
+        return schedule(interval, 0.0, task);
+    }
+
+    /**
+     * Schedules a task to run at every interval, starting at a given phase.
+     *
+     * @param interval the simulated time (in seconds) between task executions
+     * @param phase the time of the first execution (if the simulation clock is already after that,
+     *              the task is first run at the next {@code phase + n * interval} time)
+     * @param task the task to run, which receives the time it was run
+     * @return the scheduled task, which can be {@link PeriodicTask#cancel() cancelled}
+     */
+    public PeriodicTask schedule(final double interval, final double phase, final EventListener<EventInfo> task) {
+        if(interval <= 0) {
+            throw new IllegalArgumentException("Interval must be greater than zero.");
+        }
+
+        if(phase < 0) {
+            throw new IllegalArgumentException("Phase cannot be negative.");
+        }
+
+        final PeriodicTask periodicTask = new PeriodicTask(interval, phase, Objects.requireNonNull(task));
+        tasks.add(periodicTask);
+        if(started) {
+            scheduleNext(periodicTask);
+        }
+
+        return periodicTask;
+    }
+
+    @Override
+    protected void startInternal() {
+        started = true;
+        tasks.forEach(this::scheduleNext);
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        if(evt.getTag() != PERIODIC_TASK) {
+            return;
+        }
+
+        final PeriodicTask task = (PeriodicTask) evt.getData();
+        if(task.isCancelled()) {
+            tasks.remove(task);
+            return;
+        }
+
+        task.executions++;
+        task.listener.update(EventInfo.of(task.listener, getSimulation().clock()));
+        if(!task.isCancelled() && isThereAnyOtherFutureEvent()) {
+            scheduleNext(task);
+        } else {
+            tasks.remove(task);
+        }
+    }
+
+    private boolean isThereAnyOtherFutureEvent() {
+        return getSimulation().getNumberOfFutureEvents(evt -> evt.getTag() != PERIODIC_TASK) > 0;
+    }
+
+    private void scheduleNext(final PeriodicTask task) {
+        final double clock = getSimulation().clock();
+        final double nextTime = task.nextTimeAfter(clock);
+        schedule(this, nextTime - clock, PERIODIC_TASK, task);
+    }
+
+    /**
+     * @return the number of tasks still scheduled
+     */
+    public int getNumberOfTasks() {
+        return tasks.size();
+    }
+
+    /**
+     * A task run by a {@link PeriodicTaskScheduler}.
+     */
+    public static final class PeriodicTask {
+        private final double interval;
+        private final double phase;
+        private final EventListener<EventInfo> listener;
+        private long executions;
+        private boolean cancelled;
+
+        private PeriodicTask(final double interval, final double phase, final EventListener<EventInfo> listener) {
+            this.interval = interval;
+            this.phase = phase;
+            this.listener = listener;
+        }
+
+        /**
+         * Gets the first time the task is due that is not before a given time,
+         * except if the task was just run at that time
+         * (considering a tolerance for floating-point errors in the simulation clock).
+         */
+        private double nextTimeAfter(final double time) {
+            if(time <= phase) {
+                return executions == 0 ? phase : phase + interval;
+            }
+
+            long periods = (long)Math.ceil((time - phase) / interval);
+            if(executions > 0 && phase + periods * interval - time < interval * 1e-6) {
+                periods++;
+            }
+
+            return phase + periods * interval;
+        }
+
+        /**
+         * Cancels the task, so it won't run anymore.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public double getInterval() {
+            return interval;
+        }
+
+        public double getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the number of times the task was run
+         */
+        public long getExecutions() {
+            return executions;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.cloudsimplus.workload;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet.Status;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
+import org.cloudsimplus.listeners.EventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link CloudletFactory} that reuses finished Cloudlets for new arrivals
+ * and makes all the Cloudlets it creates share the same utilization models and file sizes.
+ *
+ * <p>Cloudlets are released to the pool when they finish and can be reused
+ * after a quarantine time, which gives the broker and the datacenter time to process every event
+ * related to the Cloudlet. Since finish listeners are notified before the Cloudlet scheduler sets the
+ * finish time and status, the quarantine counts from the time of the finish event, and a released Cloudlet
+ * is only reused once its status is {@link Status#SUCCESS}.
+ * A reused Cloudlet is reset and receives the length and PEs of the new arrival.
+ * New Cloudlets are just created when there is no Cloudlet available in the pool.
+ * Every Cloudlet returned by {@link #create(long, int)} gets a new id from a counter of the factory,
+ * starting at {@link #setFirstId(long)}, so that ids are never repeated.</p>
+ *
+ * <p>Since the same object represents several Cloudlets along the simulation,
+ * Cloudlet results must be collected when each Cloudlet finishes
+ * (such as by a {@link org.cloudsimplus.results.CloudletResultStore}).
+ * <b>The broker's submitted and finished lists must not be read when Cloudlets are pooled</b>,
+ * since they hold the same object several times, each one showing just the results of its last run.
+ * Finish listeners must be added by {@link #addOnFinishListener(EventListener)} instead of to the
+ * Cloudlets, since they are added again to a Cloudlet every time it's reused.</p>
+ */
+public class PooledCloudletFactory implements CloudletFactory {
+    private final Simulation simulation;
+    private final Supplier<? extends Cloudlet> cloudletSupplier;
+    private final double quarantineTime;
+
+    /**
+     * Finished Cloudlets, in the order they finished.
+     */
+    private final ArrayDeque<Cloudlet> released = new ArrayDeque<>();
+
+    /**
+     * The times the {@link #released} Cloudlets finished, in the same order.
+     */
+    private final ArrayDeque<Double> releaseTimes = new ArrayDeque<>();
+
+    /**
+     * Listeners added to every Cloudlet when it's created or reused,
+     * starting with the one which releases the Cloudlet to the pool.
+     */
+    private final List<EventListener<CloudletVmEventInfo>> onFinishListeners = new ArrayList<>();
+    private long nextId;
+
+    private UtilizationModel utilizationModelCpu = new UtilizationModelFull();
+    private UtilizationModel utilizationModelRam = UtilizationModel.NULL;
+    private UtilizationModel utilizationModelBw = UtilizationModel.NULL;
+    private long fileSize = 1;
+    private long outputSize = 1;
+
+    private long createdCloudlets;
+    private long reusedCloudlets;
+
+    /**
+     * Creates a factory that creates {@link CloudletSimple} instances when the pool is empty.
+     *
+     * @param simulation the simulation the Cloudlets belong to
+     * @param quarantineTime the time (in seconds) after a Cloudlet finishes before it can be reused
+     */
+    public PooledCloudletFactory(final Simulation simulation, final double quarantineTime) {
+        this(simulation, () -> new CloudletSimple(1, 1), quarantineTime);
+    }
+
+    /**
+     * Creates a factory.
+     *
+     * @param simulation the simulation the Cloudlets belong to
+     * @param cloudletSupplier creates a Cloudlet when the pool is empty
+     *                         (which may register it, since that is done just once for each object)
+     * @param quarantineTime the time (in seconds) after a Cloudlet finishes before it can be reused
+     */
+    public PooledCloudletFactory(
+        final Simulation simulation, final Supplier<? extends Cloudlet> cloudletSupplier, final double quarantineTime)
+    {
+        if(quarantineTime < 0) {
+            throw new IllegalArgumentException("Quarantine time cannot be negative.");
+        }
+
+        this.simulation = Objects.requireNonNull(simulation);
+        this.cloudletSupplier = Objects.requireNonNull(cloudletSupplier);
+        this.quarantineTime = quarantineTime;
+        this.onFinishListeners.add(this::release);
+    }
+
+    @Override
+    public Cloudlet create(final long length, final int pes) {
+        Cloudlet cloudlet = pollReusable();
+        if(cloudlet == null) {
+            cloudlet = cloudletSupplier.get();
+            createdCloudlets++;
+        } else {
+            /*Changes the status before resetting the Cloudlet,
+              so that status change listeners are notified.*/
+            cloudlet.setStatus(Status.INSTANTIATED);
+            cloudlet.reset();
+            reusedCloudlets++;
+        }
+
+        /*The Cloudlet may clear its finish listeners after notifying them,
+          so they are added again (without duplicating them if they were kept).*/
+        for (final EventListener<CloudletVmEventInfo> listener : onFinishListeners) {
+            cloudlet.removeOnFinishListener(listener);
+            cloudlet.addOnFinishListener(listener);
+        }
+
+        cloudlet.setId(nextId++);
+
+        cloudlet.setLength(length);
+        cloudlet.setNumberOfPes(pes);
+        cloudlet
+            .setFileSize(fileSize)
+            .setOutputSize(outputSize)
+            .setUtilizationModelCpu(utilizationModelCpu)
+            .setUtilizationModelRam(utilizationModelRam)
+            .setUtilizationModelBw(utilizationModelBw);
+        return cloudlet;
+    }
+
+    private Cloudlet pollReusable() {
+        final Cloudlet oldest = released.peekFirst();
+        if(oldest == null || oldest.getStatus() != Status.SUCCESS ||
+           simulation.clock() - releaseTimes.peekFirst() < quarantineTime)
+        {
+            return null;
+        }
+
+        releaseTimes.pollFirst();
+        return released.pollFirst();
+    }
+
+    private void release(final CloudletVmEventInfo info) {
+        released.addLast(info.getCloudlet());
+        releaseTimes.addLast(info.getTime());
+    }
+
+    /**
+     * Adds a listener to be notified when any Cloudlet created or reused by this factory finishes.
+     *
+     * @param listener the listener to add
+     * @return this factory
+     */
+    public PooledCloudletFactory addOnFinishListener(final EventListener<CloudletVmEventInfo> listener) {
+        onFinishListeners.add(Objects.requireNonNull(listener));
+        return this;
+    }
+
+    /**
+     * Sets the id of the next Cloudlet returned by the factory, which must be greater than the ids
+     * of Cloudlets created elsewhere, so that ids aren't repeated.
+     *
+     * @param firstId the first id to set
+     * @return this factory
+     */
+    public PooledCloudletFactory setFirstId(final long firstId) {
+        if(firstId < 0) {
+            throw new IllegalArgumentException("Id cannot be negative.");
+        }
+
+        this.nextId = firstId;
+        return this;
+    }
+
+    public PooledCloudletFactory setUtilizationModelCpu(final UtilizationModel utilizationModelCpu) {
+        this.utilizationModelCpu = Objects.requireNonNull(utilizationModelCpu);
+        return this;
+    }
+
+    public PooledCloudletFactory setUtilizationModelRam(final UtilizationModel utilizationModelRam) {
+        this.utilizationModelRam = Objects.requireNonNull(utilizationModelRam);
+        return this;
+    }
+
+    public PooledCloudletFactory setUtilizationModelBw(final UtilizationModel utilizationModelBw) {
+        this.utilizationModelBw = Objects.requireNonNull(utilizationModelBw);
+        return this;
+    }
+
+    /**
+     * Sets the same utilization model for CPU, RAM and BW of the created Cloudlets.
+     *
+     * @param utilizationModel the utilization model to set
+     * @return this factory
+     */
+    public PooledCloudletFactory setUtilizationModel(final UtilizationModel utilizationModel) {
+        return setUtilizationModelCpu(utilizationModel)
+                .setUtilizationModelRam(utilizationModel)
+                .setUtilizationModelBw(utilizationModel);
+    }
+
+    /**
+     * Sets the input file size and the output size (in bytes) of the created Cloudlets.
+     *
+     * @param size the size to set
+     * @return this factory
+     */
+    public PooledCloudletFactory setSizes(final long size) {
+        if(size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than zero.");
+        }
+
+        this.fileSize = size;
+        this.outputSize = size;
+        return this;
+    }
+
+    /**
+     * @return the number of Cloudlets created because there was no Cloudlet available in the pool
+     */
+    public long getCreatedCloudlets() {
+        return createdCloudlets;
+    }
+
+    /**
+     * @return the number of times a finished Cloudlet was reused
+     */
+    public long getReusedCloudlets() {
+        return reusedCloudlets;
+    }
+
+    /**
+     * @return the number of finished Cloudlets in the pool, including the ones in quarantine
+     */
+    public int getPoolSize() {
+        return released.size();
+    }
+}
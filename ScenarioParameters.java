@@ -0,0 +1,123 @@
+package org.cloudsimplus.examples;
+
+import org.cloudbus.cloudsim.resources.Pe;
+
+/**
+ * An immutable set of the parameters which define the size of an example scenario:
+ * the number of Hosts, VMs and Cloudlets and the number of {@link Pe}s for each one.
+ *
+ * <p>Each {@code withX} method returns a copy with just that parameter changed,
+ * so that a grid of scenarios can be built from the {@link #DEFAULT} values
+ * to be run by a {@link ParameterSweepRunner}.</p>
+ */
+public final class ScenarioParameters {
+    /**
+     * The values the example scenarios used to hard-code as constants.
+     */
+    public static final ScenarioParameters DEFAULT = new ScenarioParameters(1, 16, 4, 4, 120, 2, 10000);
+
+    private final int hosts;
+    private final int hostPes;
+    private final int vms;
+    private final int vmPes;
+    private final int cloudlets;
+    private final int cloudletPes;
+    private final long cloudletLength;
+
+    private ScenarioParameters(
+        final int hosts, final int hostPes, final int vms, final int vmPes,
+        final int cloudlets, final int cloudletPes, final long cloudletLength)
+    {
+        this.hosts = requirePositive(hosts, "Hosts");
+        this.hostPes = requirePositive(hostPes, "Host PEs");
+        this.vms = requirePositive(vms, "VMs");
+        this.vmPes = requirePositive(vmPes, "VM PEs");
+        this.cloudlets = requirePositive(cloudlets, "Cloudlets");
+        this.cloudletPes = requirePositive(cloudletPes, "Cloudlet PEs");
+        this.cloudletLength = requirePositive(cloudletLength, "Cloudlet length");
+    }
+
+    private static <T extends Number> T requirePositive(final T value, final String name) {
+        if(value.longValue() <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than zero.");
+        }
+
+        return value;
+    }
+
+    public int getHosts() {
+        return hosts;
+    }
+
+    public ScenarioParameters withHosts(final int hosts) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    public int getHostPes() {
+        return hostPes;
+    }
+
+    public ScenarioParameters withHostPes(final int hostPes) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    public int getVms() {
+        return vms;
+    }
+
+    public ScenarioParameters withVms(final int vms) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    public int getVmPes() {
+        return vmPes;
+    }
+
+    public ScenarioParameters withVmPes(final int vmPes) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    public int getCloudlets() {
+        return cloudlets;
+    }
+
+    public ScenarioParameters withCloudlets(final int cloudlets) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    public int getCloudletPes() {
+        return cloudletPes;
+    }
+
+    public ScenarioParameters withCloudletPes(final int cloudletPes) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    /**
+     * @return the (mean) length of Cloudlets, in Million Instructions (MI)
+     */
+    public long getCloudletLength() {
+        return cloudletLength;
+    }
+
+    public ScenarioParameters withCloudletLength(final long cloudletLength) {
+        return new ScenarioParameters(hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+
+    /**
+     * Checks if all VMs can be placed at the same time, considering just the number of PEs.
+     * Scenarios where that isn't possible leave VMs waiting forever and aren't worth running in a sweep.
+     *
+     * @return true if the Hosts have enough PEs for all VMs, false otherwise
+     */
+    public boolean isVmPesFitInHosts() {
+        return (long) vms * vmPes <= (long) hosts * hostPes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Hosts: %d (%d PEs), VMs: %d (%d PEs), Cloudlets: %d (%d PEs, %d MI)",
+            hosts, hostPes, vms, vmPes, cloudlets, cloudletPes, cloudletLength);
+    }
+}
@@ -0,0 +1,121 @@
+package org.cloudsimplus.slametrics;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable view of the SLA values the example scenarios read from a {@link SlaContract} JSON file
+ * (such as CustomerSLA.json), stored as primitive fields.
+ *
+ * <p>Parsing the contract file on every clock tick was the main cost of the SLA listeners.
+ * Snapshots are cached per file by {@link #getInstance(String)}, so the file is parsed
+ * once and only parsed again when its modification time changes.
+ * A scenario is expected to get the snapshot once when it is built and share it
+ * between all its listeners and the final SLA violation report.</p>
+ */
+public final class SlaContractSnapshot {
+    private static final Map<String, SlaContractSnapshot> CACHE = new ConcurrentHashMap<>();
+
+    private final String file;
+    private final long lastModified;
+
+    private final double maxTaskCompletionTime;
+    private final double minFaultTolerance;
+    private final double minAvailability;
+    private final double maxCpuUtilization;
+
+    private SlaContractSnapshot(final String file, final long lastModified, final SlaContract contract) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.maxTaskCompletionTime = contract.getTaskCompletionTimeMetric().getMaxDimension().getValue();
+        this.minFaultTolerance = contract.getFaultToleranceLevel().getMinDimension().getValue();
+        this.minAvailability = contract.getAvailabilityMetric().getMinDimension().getValue();
+        this.maxCpuUtilization = contract.getCpuUtilizationMetric().getMaxDimension().getValue();
+    }
+
+    /**
+     * Gets the SLA snapshot for a given contract file,
+     * parsing the file only if it wasn't loaded yet or if it was changed since the last load.
+     *
+     * @param file the path of the JSON SLA contract file, as accepted by {@link SlaContract#getInstance(String)}
+     * @return the cached (or just loaded) snapshot
+     */
+    public static SlaContractSnapshot getInstance(final String file) {
+        final long lastModified = lastModified(file);
+        return CACHE.compute(file, (key, cached) ->
+            cached != null && cached.lastModified == lastModified ?
+                cached :
+                new SlaContractSnapshot(key, lastModified, SlaContract.getInstance(key)));
+    }
+
+    /**
+     * Gets the modification time of the contract file,
+     * looking for it first in the file system and then in the classpath.
+     *
+     * @param file the path of the contract file
+     * @return the modification time or 0 if it cannot be determined
+     * (such as when the file is packaged inside a jar, where it never changes)
+     */
+    private static long lastModified(final String file) {
+        final File localFile = new File(file);
+        if(localFile.exists()) {
+            return localFile.lastModified();
+        }
+
+        final URL url = SlaContract.class.getClassLoader().getResource(file);
+        if(url == null || !"file".equals(url.getProtocol())) {
+            return 0;
+        }
+
+        try {
+            return new File(url.toURI()).lastModified();
+        } catch (URISyntaxException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return the path of the contract file this snapshot was loaded from
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * @return the maximum time (in seconds) a task is allowed to take to complete (MAXTime)
+     */
+    public double getMaxTaskCompletionTime() {
+        return maxTaskCompletionTime;
+    }
+
+    /**
+     * @return the minimum fault tolerance level (MINFaultTol)
+     */
+    public double getMinFaultTolerance() {
+        return minFaultTolerance;
+    }
+
+    /**
+     * @return the minimum availability, in percentage (MINAvailability)
+     */
+    public double getMinAvailability() {
+        return minAvailability;
+    }
+
+    /**
+     * @return the maximum CPU utilization, in percentage (MAXCpuUtil)
+     */
+    public double getMaxCpuUtilization() {
+        return maxCpuUtilization;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "SLA %s: MAXTime %.2f, MINFaultTol %.2f, MINAvailability %.2f%%, MAXCpuUtil %.2f%%",
+            file, maxTaskCompletionTime, minFaultTolerance, minAvailability, maxCpuUtilization);
+    }
+}
@@ -0,0 +1,224 @@
+package org.cloudsimplus.slametrics;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudsimplus.listeners.CloudletVmEventInfo;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps the task completion time SLA violation figures up to date
+ * while the simulation runs, updating them each time a tracked Cloudlet finishes.
+ *
+ * <p>Each finish event costs O(1) and no reference to the finished Cloudlet is kept,
+ * so violation numbers can be checked at any time during long runs,
+ * without having to keep the whole finished Cloudlet list just to count violations at the end.</p>
+ */
+public class SlaViolationAccumulator {
+    private final double maxTaskCompletionTime;
+    private final ToDoubleFunction<Cloudlet> startTimeFunction;
+
+    private long finishedCloudlets;
+    private long failedCloudlets;
+    private long taskCompletionTimeViolations;
+
+    private double totalTimeSum;
+    private double exceededTimeSum;
+
+    private long worstCloudletId = -1;
+    private double worstTotalTime;
+
+    private final LatencyHistogram totalTimeHistogram = new LatencyHistogram();
+
+    /**
+     * Creates an accumulator that computes the total time of a Cloudlet
+     * as the time between its execution start and its finish.
+     *
+     * @param sla the SLA contract defining the maximum task completion time
+     */
+    public SlaViolationAccumulator(final SlaContractSnapshot sla) {
+        this(sla, Cloudlet::getExecStartTime);
+    }
+
+    /**
+     * Creates an accumulator that computes the total time of a Cloudlet
+     * as the time between a given start time and its finish.
+     *
+     * @param sla the SLA contract defining the maximum task completion time
+     * @param startTimeFunction a function that gets the time from which the total time of a Cloudlet is counted
+     *                          (for instance, its arrival at the Datacenter)
+     */
+    public SlaViolationAccumulator(final SlaContractSnapshot sla, final ToDoubleFunction<Cloudlet> startTimeFunction) {
+        this.maxTaskCompletionTime = sla.getMaxTaskCompletionTime();
+        this.startTimeFunction = Objects.requireNonNull(startTimeFunction);
+    }
+
+    /**
+     * Registers a listener into a Cloudlet so that its results are accumulated when it finishes.
+     *
+     * @param cloudlet the Cloudlet to track
+     * @return the given Cloudlet
+     */
+    public Cloudlet track(final Cloudlet cloudlet) {
+        cloudlet.addOnFinishListener(this::onCloudletFinish);
+        return cloudlet;
+    }
+
+    /**
+     * A listener for the finish of Cloudlets, which can be registered directly
+     * by {@link Cloudlet#addOnFinishListener(org.cloudsimplus.listeners.EventListener)}.
+     *
+     * <p>Finish listeners are notified as soon as the whole Cloudlet length is executed,
+     * before the Cloudlet scheduler sets its status and finish time.
+     * That is why the finish time is taken from the event
+     * and the Cloudlet is recorded as {@link Cloudlet.Status#SUCCESS}.</p>
+     *
+     * @param info information about the finished Cloudlet
+     */
+    public void onCloudletFinish(final CloudletVmEventInfo info) {
+        final Cloudlet cloudlet = info.getCloudlet();
+        record(cloudlet.getId(), Cloudlet.Status.SUCCESS, info.getTime() - startTimeFunction.applyAsDouble(cloudlet));
+    }
+
+    /**
+     * A listener for the status changes of Cloudlets, which counts the failed ones.
+     * It can be registered by {@link org.cloudbus.cloudsim.cloudlets.CloudletStatusRegistry#addOnStatusChangeListener(java.util.function.BiConsumer)},
+     * since failed Cloudlets never finish and aren't seen by {@link #onCloudletFinish(CloudletVmEventInfo)}.
+     *
+     * @param cloudlet the Cloudlet whose status changed
+     * @param previousStatus the status before the change
+     */
+    public void onCloudletStatusChange(final Cloudlet cloudlet, final Cloudlet.Status previousStatus) {
+        if(cloudlet.getStatus() == Cloudlet.Status.FAILED) {
+            failedCloudlets++;
+        }
+    }
+
+    /**
+     * Accumulates the results of a Cloudlet which was already returned to the broker,
+     * so that its status and finish time are set.
+     *
+     * @param cloudlet the finished Cloudlet
+     */
+    public void record(final Cloudlet cloudlet) {
+        record(cloudlet.getId(), cloudlet.getStatus(), cloudlet.getFinishTime() - startTimeFunction.applyAsDouble(cloudlet));
+    }
+
+    /**
+     * Accumulates the results of a finished Cloudlet from its raw values,
+     * such as the ones read from a {@link org.cloudsimplus.results.CloudletResultStore}.
+     *
+     * @param cloudletId the id of the finished Cloudlet
+     * @param status the final status of the Cloudlet
+     * @param totalTime the total time of the Cloudlet
+     */
+    public void record(final long cloudletId, final Cloudlet.Status status, final double totalTime) {
+        finishedCloudlets++;
+        if(status == Cloudlet.Status.FAILED) {
+            failedCloudlets++;
+        }
+
+        totalTimeSum += totalTime;
+        totalTimeHistogram.record(totalTime);
+        if(totalTime > maxTaskCompletionTime) {
+            taskCompletionTimeViolations++;
+            exceededTimeSum += totalTime - maxTaskCompletionTime;
+        }
+
+        if(worstCloudletId < 0 || totalTime > worstTotalTime) {
+            worstCloudletId = cloudletId;
+            worstTotalTime = totalTime;
+        }
+    }
+
+    /**
+     * @return the maximum task completion time from the SLA contract
+     */
+    public double getMaxTaskCompletionTime() {
+        return maxTaskCompletionTime;
+    }
+
+    /**
+     * @return the number of Cloudlets which have finished so far
+     */
+    public long getFinishedCloudlets() {
+        return finishedCloudlets;
+    }
+
+    /**
+     * @return the number of Cloudlets which changed to {@link Cloudlet.Status#FAILED}
+     * or were recorded with that status
+     */
+    public long getFailedCloudlets() {
+        return failedCloudlets;
+    }
+
+    /**
+     * @return the number of finished Cloudlets whose total time was greater than
+     * the maximum task completion time from the SLA contract
+     */
+    public long getTaskCompletionTimeViolations() {
+        return taskCompletionTimeViolations;
+    }
+
+    /**
+     * @return the percentage of finished Cloudlets which violated the task completion time (in scale from 0 to 1)
+     */
+    public double getTaskCompletionTimeViolationRate() {
+        return finishedCloudlets == 0 ? 0 : taskCompletionTimeViolations / (double) finishedCloudlets;
+    }
+
+    /**
+     * @return the sum of the total time of all finished Cloudlets
+     */
+    public double getTotalTimeSum() {
+        return totalTimeSum;
+    }
+
+    /**
+     * @return the mean total time of finished Cloudlets
+     */
+    public double getMeanTotalTime() {
+        return finishedCloudlets == 0 ? 0 : totalTimeSum / finishedCloudlets;
+    }
+
+    /**
+     * @return the sum of the time by which violating Cloudlets exceeded the maximum task completion time
+     */
+    public double getExceededTimeSum() {
+        return exceededTimeSum;
+    }
+
+    /**
+     * @return the id of the finished Cloudlet with the largest total time, or -1 if no Cloudlet has finished yet
+     */
+    public long getWorstCloudletId() {
+        return worstCloudletId;
+    }
+
+    /**
+     * @return the largest total time among finished Cloudlets
+     */
+    public double getWorstTotalTime() {
+        return worstTotalTime;
+    }
+
+    /**
+     * Gets the distribution of the total time of finished Cloudlets,
+     * from which percentiles can be computed and compared to the max task completion time.
+     *
+     * @return the total time histogram
+     */
+    public LatencyHistogram getTotalTimeHistogram() {
+        return totalTimeHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d of %d finished Cloudlets violated the max task completion time of %.2f seconds (%.2f%%). " +
+            "Mean total time: %.2f seconds. Worst: Cloudlet %d with %.2f seconds.",
+            taskCompletionTimeViolations, finishedCloudlets, maxTaskCompletionTime,
+            getTaskCompletionTimeViolationRate()*100, getMeanTotalTime(), worstCloudletId, worstTotalTime);
+    }
+}
@@ -0,0 +1,276 @@
+package org.cloudsimplus.faultinjection;
+
+import org.cloudbus.cloudsim.core.CloudSimEntity;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a pool of pre-built standby Hosts which are added to a {@link Datacenter} as soon as
+ * a Host is found to have lost the capacity its VMs need, instead of creating a Host only after the fault happens.
+ *
+ * <p>A Host is replaced when its working PEs are fewer than the PEs of the VMs placed on it
+ * (including the VMs the fault has just failed). Faults which leave enough working PEs
+ * for the VMs, or which hit Hosts with no VMs (such as spares already handed over), don't use a spare.
+ * Each Host is replaced at most once.</p>
+ *
+ * <p>Every spare handed over to the datacenter is replaced in the background:
+ * a new Host is ordered and the pool sends itself an event for the time it will be ready,
+ * after the provisioning time.
+ * If a Host loses capacity when the pool is empty, the next Host which gets ready
+ * is directly handed over to the datacenter.</p>
+ *
+ * <p>The pool size is the number of Host faults expected while a spare is provisioned,
+ * plus a safety margin of some standard deviations (faults are taken as a Poisson process),
+ * bounded by a minimum and maximum size. The expected number of faults is computed from
+ * the Host MTBF observed by the {@link HostFaultInjection},
+ * starting from an expected MTBF which counts as a single observation.</p>
+ */
+public class SpareHostPool extends CloudSimEntity {
+    /**
+     * The tag of the events this entity sends to itself when an ordered Host gets ready.
+     */
+    public static final int HOST_PROVISIONED = 1_000_002;
+
+    private final Datacenter datacenter;
+    private final HostFaultInjection fault;
+    private final Supplier<Host> hostSupplier;
+    private final double provisioningTime;
+    private final double expectedMtbf;
+
+    private int minSize = 1;
+    private int maxSize = 4;
+    private double safetyFactor = 2;
+
+    private final ArrayDeque<Host> spares = new ArrayDeque<>();
+
+    /**
+     * The number of Hosts ordered which are not ready yet.
+     */
+    private int provisioningHosts;
+
+    /**
+     * The times of the capacity losses which couldn't be recovered yet because the pool was empty.
+     */
+    private final ArrayDeque<Double> pendingFaultTimes = new ArrayDeque<>();
+
+    /**
+     * The Hosts which have already been replaced, so that they aren't replaced again.
+     */
+    private final Set<Host> replacedHosts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long handedOverHosts;
+    private double totalRecoveryTime;
+
+    /**
+     * Creates a pool, filling it with the number of spares computed from the expected MTBF.
+     *
+     * @param fault the fault injection whose Host faults are recovered by the pool
+     * @param hostSupplier creates the spare Hosts
+     * @param provisioningTime the time (in seconds) it takes for an ordered Host to be ready
+     * @param expectedMtbf the Host MTBF (in seconds) expected before any fault is observed
+     */
+    public SpareHostPool(
+        final HostFaultInjection fault, final Supplier<Host> hostSupplier,
+        final double provisioningTime, final double expectedMtbf)
+    {
+        super(fault.getSimulation());
+        if(provisioningTime < 0 || expectedMtbf <= 0) {
+            throw new IllegalArgumentException("Provisioning time cannot be negative and the expected MTBF must be greater than zero.");
+        }
+
+        this.fault = fault;
+        this.datacenter = fault.getDatacenter();
+        this.hostSupplier = Objects.requireNonNull(hostSupplier);
+        this.provisioningTime = provisioningTime;
+        this.expectedMtbf = expectedMtbf;
+        fill();
+    }
+
+    @Override
+    protected void startInternal() {
+        // Hosts are only ordered (and their events sent) once spares are handed over
+    }
+
+    /**
+     * Builds spares right away until the pool reaches its target size.
+     */
+    private void fill() {
+        while (spares.size() < getTargetSize()) {
+            spares.addLast(hostSupplier.get());
+        }
+    }
+
+    /**
+     * Hands a spare Host over to the datacenter for each Host which has lost the capacity its VMs need
+     * since the last call, ordering new Hosts to refill the pool.
+     *
+     * @param time the current simulation time
+     * @return the number of Hosts added to the datacenter
+     */
+    public int replaceFailedHosts(final double time) {
+        //Collected first, since handing a spare over changes the datacenter Host list
+        final List<Host> lostHosts = datacenter.getHostList().stream()
+            .filter(host -> !replacedHosts.contains(host) && hasLostVmCapacity(host))
+            .collect(Collectors.toList());
+
+        int addedHosts = 0;
+        for (final Host host : lostHosts) {
+            replacedHosts.add(host);
+            if(spares.isEmpty()) {
+                pendingFaultTimes.addLast(time);
+            } else {
+                handOver(spares.pollFirst(), time, time);
+                addedHosts++;
+            }
+        }
+
+        orderHosts();
+        return addedHosts;
+    }
+
+    /**
+     * Checks if a Host has fewer working PEs than the VMs placed on it require.
+     * Failed VMs are still placed on the Host, so a Host whose PEs have all failed
+     * is counted as long as it had VMs.
+     */
+    private static boolean hasLostVmCapacity(final Host host) {
+        final long requiredPes = host.getVmList().stream().mapToLong(Vm::getNumberOfPes).sum();
+        return host.getWorkingPesNumber() < requiredPes;
+    }
+
+    /**
+     * Moves a provisioned Host to the pool (or directly to the datacenter if there are
+     * capacity losses waiting for a Host) and orders Hosts if the pool is under its target size.
+     */
+    @Override
+    public void processEvent(final SimEvent evt) {
+        if(evt.getTag() != HOST_PROVISIONED) {
+            return;
+        }
+
+        provisioningHosts--;
+        final Host host = hostSupplier.get();
+        if(pendingFaultTimes.isEmpty()) {
+            spares.addLast(host);
+        } else {
+            handOver(host, pendingFaultTimes.pollFirst(), getSimulation().clock());
+        }
+
+        orderHosts();
+    }
+
+    private void handOver(final Host host, final double faultTime, final double time) {
+        datacenter.addHost(host);
+        handedOverHosts++;
+        totalRecoveryTime += time - faultTime;
+    }
+
+    /**
+     * Orders the Hosts needed to bring the pool to its target size and to recover pending capacity losses,
+     * scheduling an event for the time each one will be ready.
+     */
+    private void orderHosts() {
+        final int required = getTargetSize() + pendingFaultTimes.size();
+        while (spares.size() + provisioningHosts < required) {
+            provisioningHosts++;
+            schedule(this, provisioningTime, HOST_PROVISIONED);
+        }
+    }
+
+    /**
+     * Gets the number of spares the pool tries to keep, according to the current Host MTBF.
+     *
+     * @return the target pool size
+     */
+    public int getTargetSize() {
+        final double expectedFaults = provisioningTime / getMtbf();
+        final int size = (int) Math.ceil(expectedFaults + safetyFactor * Math.sqrt(expectedFaults));
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    /**
+     * Gets the Host MTBF (in seconds) observed up to now, where the expected MTBF counts as
+     * the time until a first fault, so that the MTBF is available before any fault happens.
+     *
+     * @return the Host MTBF in seconds
+     */
+    public double getMtbf() {
+        return (fault.getSimulation().clock() + expectedMtbf) / (fault.getNumberOfHostFaults() + 1);
+    }
+
+    /**
+     * Sets the minimum and maximum number of spares in the pool.
+     *
+     * @param minSize the minimum pool size
+     * @param maxSize the maximum pool size
+     * @return this pool
+     */
+    public SpareHostPool setSizeLimits(final int minSize, final int maxSize) {
+        if(minSize < 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("The minimum pool size cannot be negative or greater than the maximum size.");
+        }
+
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        fill();
+        return this;
+    }
+
+    /**
+     * Sets the number of standard deviations of the expected faults added to the pool size.
+     *
+     * @param safetyFactor the safety factor to set
+     * @return this pool
+     */
+    public SpareHostPool setSafetyFactor(final double safetyFactor) {
+        if(safetyFactor < 0) {
+            throw new IllegalArgumentException("Safety factor cannot be negative.");
+        }
+
+        this.safetyFactor = safetyFactor;
+        fill();
+        return this;
+    }
+
+    /**
+     * @return the number of spares currently in the pool
+     */
+    public int getNumberOfSpares() {
+        return spares.size();
+    }
+
+    /**
+     * @return the number of Hosts ordered which are not ready yet
+     */
+    public int getNumberOfProvisioningHosts() {
+        return provisioningHosts;
+    }
+
+    /**
+     * @return the number of Hosts added to the datacenter by the pool
+     */
+    public long getHandedOverHosts() {
+        return handedOverHosts;
+    }
+
+    /**
+     * Gets the mean time (in seconds) from the detection of a capacity loss until a Host
+     * is added to the datacenter, which is zero when there was a spare in the pool.
+     *
+     * @return the mean recovery time
+     */
+    public double getMeanRecoveryTime() {
+        return handedOverHosts == 0 ? 0 : totalRecoveryTime / handedOverHosts;
+    }
+}
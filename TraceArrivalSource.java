@@ -0,0 +1,47 @@
+package org.cloudsimplus.workload;
+
+import java.util.Objects;
+
+/**
+ * An {@link ArrivalSource} that replays arrivals stored in arrays,
+ * such as the ones read from a workload trace.
+ */
+public class TraceArrivalSource implements ArrivalSource {
+    private final double[] times;
+    private final long[] lengths;
+    private final int[] pes;
+    private int next;
+
+    /**
+     * Creates a source from arrays where the same index refers to the same Cloudlet.
+     * The arrays are not copied, so they must not be changed while the source is used.
+     *
+     * @param times the arrival time (in seconds) of each Cloudlet, in non-decreasing order
+     * @param lengths the length (in MI) of each Cloudlet
+     * @param pes the number of PEs of each Cloudlet
+     */
+    public TraceArrivalSource(final double[] times, final long[] lengths, final int[] pes) {
+        this.times = Objects.requireNonNull(times);
+        this.lengths = Objects.requireNonNull(lengths);
+        this.pes = Objects.requireNonNull(pes);
+        if(lengths.length != times.length || pes.length != times.length) {
+            throw new IllegalArgumentException("All arrays must have the same length.");
+        }
+
+        for (int i = 1; i < times.length; i++) {
+            if(times[i] < times[i-1]) {
+                throw new IllegalArgumentException("Arrival times must be in non-decreasing order. Index " + i + " is out of order.");
+            }
+        }
+    }
+
+    @Override
+    public int fill(final double[] times, final long[] lengths, final int[] pes, final int max) {
+        final int count = Math.min(max, this.times.length - next);
+        System.arraycopy(this.times, next, times, 0, count);
+        System.arraycopy(this.lengths, next, lengths, 0, count);
+        System.arraycopy(this.pes, next, pes, 0, count);
+        next += count;
+        return count;
+    }
+}
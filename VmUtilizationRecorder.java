@@ -0,0 +1,335 @@
+package org.cloudsimplus.monitoring;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the CPU utilization, number of PEs, number of running Cloudlets and RAM utilization
+ * of VMs along the simulation into per-VM time series, for analysis after (or during) the simulation.
+ *
+ * <p>Each VM has a fine buffer holding its last samples at full resolution, stored in primitive ring buffers.
+ * When the fine buffer is full, the oldest sample is rolled up into a window of {@link #getWindowSeconds()}
+ * seconds, which keeps just the min, max and average of the sample values.
+ * Windows are also stored in a ring buffer, whose oldest windows are discarded when it's full.
+ * Therefore, the memory used for each VM is fixed when the recorder is created,
+ * no matter how long the simulation runs: 32 bytes for each fine sample plus 72 bytes for each window
+ * (about 100 KB with the default capacities).</p>
+ */
+public class VmUtilizationRecorder {
+    public static final int DEFAULT_FINE_CAPACITY = 600;
+    public static final double DEFAULT_WINDOW_SECONDS = 600;
+    public static final int DEFAULT_WINDOW_CAPACITY = 1200;
+
+    private final int fineCapacity;
+    private final double windowSeconds;
+    private final int windowCapacity;
+    private final Map<Long, Series> seriesByVmId = new HashMap<>();
+
+    /**
+     * Creates a recorder that keeps the last {@link #DEFAULT_FINE_CAPACITY} samples
+     * and 200 hours of 10 minute windows for each VM.
+     */
+    public VmUtilizationRecorder() {
+        this(DEFAULT_FINE_CAPACITY, DEFAULT_WINDOW_SECONDS, DEFAULT_WINDOW_CAPACITY);
+    }
+
+    /**
+     * Creates a recorder.
+     *
+     * @param fineCapacity the number of samples kept at full resolution for each VM
+     * @param windowSeconds the length of the windows older samples are rolled up into
+     * @param windowCapacity the number of windows kept for each VM
+     */
+    public VmUtilizationRecorder(final int fineCapacity, final double windowSeconds, final int windowCapacity) {
+        if(fineCapacity <= 0 || windowCapacity <= 0 || windowSeconds <= 0) {
+            throw new IllegalArgumentException("Capacities and window length must be greater than zero.");
+        }
+
+        this.fineCapacity = fineCapacity;
+        this.windowSeconds = windowSeconds;
+        this.windowCapacity = windowCapacity;
+    }
+
+    /**
+     * Records a sample of each given VM.
+     *
+     * @param time the current simulation time
+     * @param vms the VMs to sample
+     */
+    public void recordAll(final double time, final Collection<? extends Vm> vms) {
+        for (final Vm vm : vms) {
+            record(time, vm);
+        }
+    }
+
+    /**
+     * Records a sample of a VM.
+     *
+     * @param time the current simulation time
+     * @param vm the VM to sample
+     */
+    public void record(final double time, final Vm vm) {
+        getOrCreateSeries(vm.getId()).add(
+            time, vm.getCpuPercentUtilization(), (int) vm.getNumberOfPes(),
+            vm.getCloudletScheduler().getCloudletExecList().size(), vm.getRam().getPercentUtilization());
+    }
+
+    private Series getOrCreateSeries(final long vmId) {
+        Series series = seriesByVmId.get(vmId);
+        if(series == null) {
+            series = new Series(vmId);
+            seriesByVmId.put(vmId, series);
+        }
+
+        return series;
+    }
+
+    /**
+     * Gets the time series of a VM.
+     *
+     * @param vm the VM to get its series
+     * @return the series or null if no sample was recorded for that VM
+     */
+    public Series getSeries(final Vm vm) {
+        return seriesByVmId.get(vm.getId());
+    }
+
+    /**
+     * @return the time series of all sampled VMs, indexed by VM id
+     */
+    public Map<Long, Series> getSeriesByVmId() {
+        return seriesByVmId;
+    }
+
+    public double getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * The samples and windows of a single VM.
+     * Indexes go from the oldest (0) to the newest sample or window.
+     */
+    public final class Series {
+        private final long vmId;
+
+        private final double[] times = new double[fineCapacity];
+        private final double[] cpu = new double[fineCapacity];
+        private final int[] pes = new int[fineCapacity];
+        private final int[] runningCloudlets = new int[fineCapacity];
+        private final double[] ram = new double[fineCapacity];
+        private int fineStart;
+        private int fineSize;
+
+        private final double[] windowStarts = new double[windowCapacity];
+        private final int[] windowSamples = new int[windowCapacity];
+        private final double[] cpuMin = new double[windowCapacity];
+        private final double[] cpuMax = new double[windowCapacity];
+        private final double[] cpuAvg = new double[windowCapacity];
+        private final int[] pesMax = new int[windowCapacity];
+        private final double[] runningCloudletsAvg = new double[windowCapacity];
+        private final double[] ramMin = new double[windowCapacity];
+        private final double[] ramMax = new double[windowCapacity];
+        private final double[] ramAvg = new double[windowCapacity];
+        private int windowStart;
+        private int windowSize;
+
+        /**
+         * The window older samples are being rolled up into, which isn't in the window buffer yet.
+         */
+        private double openWindowStart = Double.NaN;
+        private int openSamples;
+        private double openCpuMin, openCpuMax, openCpuSum;
+        private int openPesMax;
+        private long openRunningSum;
+        private double openRamMin, openRamMax, openRamSum;
+
+        private long totalSamples;
+        private double peakCpu;
+
+        private Series(final long vmId) {
+            this.vmId = vmId;
+        }
+
+        private void add(final double time, final double cpuUtilization, final int pesNumber, final int running, final double ramUtilization) {
+            if(fineSize == fineCapacity) {
+                rollUp(fineStart);
+                fineStart = (fineStart + 1) % fineCapacity;
+                fineSize--;
+            }
+
+            final int i = (fineStart + fineSize) % fineCapacity;
+            times[i] = time;
+            cpu[i] = cpuUtilization;
+            pes[i] = pesNumber;
+            runningCloudlets[i] = running;
+            ram[i] = ramUtilization;
+            fineSize++;
+            totalSamples++;
+            peakCpu = Math.max(peakCpu, cpuUtilization);
+        }
+
+        /**
+         * Adds a sample evicted from the fine buffer to the open window,
+         * closing it first if the sample belongs to a later window.
+         */
+        private void rollUp(final int i) {
+            final double sampleWindowStart = Math.floor(times[i] / windowSeconds) * windowSeconds;
+            if(openSamples > 0 && sampleWindowStart != openWindowStart) {
+                closeWindow();
+            }
+
+            if(openSamples == 0) {
+                openWindowStart = sampleWindowStart;
+                openCpuMin = openCpuMax = cpu[i];
+                openRamMin = openRamMax = ram[i];
+            }
+
+            openSamples++;
+            openCpuMin = Math.min(openCpuMin, cpu[i]);
+            openCpuMax = Math.max(openCpuMax, cpu[i]);
+            openCpuSum += cpu[i];
+            openPesMax = Math.max(openPesMax, pes[i]);
+            openRunningSum += runningCloudlets[i];
+            openRamMin = Math.min(openRamMin, ram[i]);
+            openRamMax = Math.max(openRamMax, ram[i]);
+            openRamSum += ram[i];
+        }
+
+        private void closeWindow() {
+            if(windowSize == windowCapacity) {
+                windowStart = (windowStart + 1) % windowCapacity;
+                windowSize--;
+            }
+
+            final int w = (windowStart + windowSize) % windowCapacity;
+            windowStarts[w] = openWindowStart;
+            windowSamples[w] = openSamples;
+            cpuMin[w] = openCpuMin;
+            cpuMax[w] = openCpuMax;
+            cpuAvg[w] = openCpuSum / openSamples;
+            pesMax[w] = openPesMax;
+            runningCloudletsAvg[w] = openRunningSum / (double) openSamples;
+            ramMin[w] = openRamMin;
+            ramMax[w] = openRamMax;
+            ramAvg[w] = openRamSum / openSamples;
+            windowSize++;
+
+            openSamples = 0;
+            openCpuSum = 0;
+            openPesMax = 0;
+            openRunningSum = 0;
+            openRamSum = 0;
+        }
+
+        public long getVmId() {
+            return vmId;
+        }
+
+        /**
+         * @return the number of samples recorded since the beginning, including the ones rolled up into windows
+         */
+        public long getTotalSamples() {
+            return totalSamples;
+        }
+
+        /**
+         * @return the highest CPU utilization ever recorded (in scale from 0 to 1)
+         */
+        public double getPeakCpu() {
+            return peakCpu;
+        }
+
+        /**
+         * @return the number of samples in the fine buffer
+         */
+        public int getSampleCount() {
+            return fineSize;
+        }
+
+        private int sample(final int index) {
+            if(index < 0 || index >= fineSize) {
+                throw new IndexOutOfBoundsException("Sample " + index + " doesn't exist. Samples: " + fineSize);
+            }
+
+            return (fineStart + index) % fineCapacity;
+        }
+
+        public double getTime(final int index) {
+            return times[sample(index)];
+        }
+
+        public double getCpu(final int index) {
+            return cpu[sample(index)];
+        }
+
+        public int getPes(final int index) {
+            return pes[sample(index)];
+        }
+
+        public int getRunningCloudlets(final int index) {
+            return runningCloudlets[sample(index)];
+        }
+
+        public double getRam(final int index) {
+            return ram[sample(index)];
+        }
+
+        /**
+         * @return the number of closed windows in the window buffer
+         */
+        public int getWindowCount() {
+            return windowSize;
+        }
+
+        private int window(final int index) {
+            if(index < 0 || index >= windowSize) {
+                throw new IndexOutOfBoundsException("Window " + index + " doesn't exist. Windows: " + windowSize);
+            }
+
+            return (windowStart + index) % windowCapacity;
+        }
+
+        public double getWindowStart(final int index) {
+            return windowStarts[window(index)];
+        }
+
+        public int getWindowSamples(final int index) {
+            return windowSamples[window(index)];
+        }
+
+        public double getWindowCpuMin(final int index) {
+            return cpuMin[window(index)];
+        }
+
+        public double getWindowCpuMax(final int index) {
+            return cpuMax[window(index)];
+        }
+
+        public double getWindowCpuAvg(final int index) {
+            return cpuAvg[window(index)];
+        }
+
+        public int getWindowPesMax(final int index) {
+            return pesMax[window(index)];
+        }
+
+        public double getWindowRunningCloudletsAvg(final int index) {
+            return runningCloudletsAvg[window(index)];
+        }
+
+        public double getWindowRamMin(final int index) {
+            return ramMin[window(index)];
+        }
+
+        public double getWindowRamMax(final int index) {
+            return ramMax[window(index)];
+        }
+
+        public double getWindowRamAvg(final int index) {
+            return ramAvg[window(index)];
+        }
+    }
+}
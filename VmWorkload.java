@@ -0,0 +1,73 @@
+package org.cloudbus.cloudsim.vms;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+
+/**
+ * Functions to estimate the work queued into VMs, taking the total MIPS capacity of a VM
+ * (MIPS of each PE times the number of PEs) as fluid capacity shared by its Cloudlets.
+ * Work is measured in MI of all PEs used by a Cloudlet (that is, its length times its number of PEs).
+ */
+public final class VmWorkload {
+    private VmWorkload() {}
+
+    /**
+     * Gets the total MIPS capacity of a VM.
+     *
+     * @param vm the VM to get the capacity
+     * @return the MIPS of each PE times the number of PEs
+     */
+    public static double capacity(final Vm vm) {
+        return vm.getMips() * vm.getNumberOfPes();
+    }
+
+    /**
+     * Gets the total work of a Cloudlet.
+     *
+     * @param cloudlet the Cloudlet to get the work
+     * @return the Cloudlet length times its number of PEs
+     */
+    public static double work(final Cloudlet cloudlet) {
+        return (double) cloudlet.getLength() * cloudlet.getNumberOfPes();
+    }
+
+    /**
+     * Gets the work of a Cloudlet which wasn't executed yet.
+     *
+     * @param cloudlet the Cloudlet to get the remaining work
+     * @return the remaining Cloudlet length times its number of PEs
+     */
+    public static double remainingWork(final Cloudlet cloudlet) {
+        return (double) (cloudlet.getLength() - cloudlet.getFinishedLengthSoFar()) * cloudlet.getNumberOfPes();
+    }
+
+    /**
+     * Gets the remaining work of all Cloudlets running or waiting into the Cloudlet scheduler of a VM.
+     * Cloudlets which didn't reach the VM yet aren't included.
+     *
+     * @param vm the VM to get the remaining work
+     * @return the remaining work
+     */
+    public static double remainingWork(final Vm vm) {
+        double remainingWork = 0;
+        for (final CloudletExecution cle : vm.getCloudletScheduler().getCloudletExecList()) {
+            remainingWork += cle.getRemainingCloudletLength() * cle.getNumberOfPes();
+        }
+
+        for (final CloudletExecution cle : vm.getCloudletScheduler().getCloudletWaitingList()) {
+            remainingWork += cle.getRemainingCloudletLength() * cle.getNumberOfPes();
+        }
+
+        return remainingWork;
+    }
+
+    /**
+     * Gets the time (in seconds) a VM will take to finish the remaining work into its Cloudlet scheduler.
+     *
+     * @param vm the VM to get the queue time
+     * @return the queue time
+     */
+    public static double queueTime(final Vm vm) {
+        return remainingWork(vm) / capacity(vm);
+    }
+}
@@ -0,0 +1,33 @@
+package org.cloudsimplus.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of the SLA, reporting and cloning hot paths with the GC profiler enabled,
+ * so that the allocation rate (gc.alloc.rate.norm) is reported next to the throughput of each benchmark.
+ * Results are also written to a JSON file, which can be compared between runs to catch regressions.
+ *
+ * <p>A regular expression can be given as argument to run just some benchmarks,
+ * such as {@code SlaBenchmark} or {@code .*cloneCloudlets}.</p>
+ */
+public final class BenchmarkRunner {
+    private static final String RESULTS_FILE = "jmh-results.json";
+
+    private BenchmarkRunner() {}
+
+    public static void main(final String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : "org\\.cloudsimplus\\..*Benchmark.*";
+        final Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULTS_FILE)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,71 @@
+package org.cloudsimplus.benchmarks;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.faultinjection.FaultInjectionCloning;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cloning a VM and the Cloudlets it was running when a Host fails,
+ * using the {@link FaultInjectionCloning} functions given to the VM cloner of the fault injection scenarios.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FaultInjectionCloningBenchmark {
+    @Param({"100", "10000", "1000000"})
+    private int cloudlets;
+
+    private Vm vm;
+    private List<Cloudlet> sourceCloudlets;
+
+    @Setup
+    public void setup() {
+        vm = new VmSimple(1, 1000, 2)
+            .setRam(10000).setBw(100000).setSize(1000)
+            .setCloudletScheduler(new CloudletSchedulerTimeShared());
+
+        final UtilizationModelFull utilizationModelFull = new UtilizationModelFull();
+        final UtilizationModelDynamic utilizationModelDynamic = new UtilizationModelDynamic(0.1);
+        sourceCloudlets = new ArrayList<>(cloudlets);
+        for (int i = 0; i < cloudlets; i++) {
+            final Cloudlet cloudlet = new CloudletSimple(i, 2800_000_000L, 2)
+                .setUtilizationModelCpu(utilizationModelFull)
+                .setUtilizationModelBw(utilizationModelDynamic)
+                .setUtilizationModelRam(utilizationModelDynamic);
+            sourceCloudlets.add(cloudlet);
+        }
+    }
+
+    @Benchmark
+    public Vm cloneVm() {
+        return FaultInjectionCloning.cloneVm(vm);
+    }
+
+    @Benchmark
+    public List<Cloudlet> cloneCloudlets() {
+        return FaultInjectionCloning.cloneCloudlets(sourceCloudlets);
+    }
+}
@@ -0,0 +1,69 @@
+package org.cloudsimplus.benchmarks;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletStatusRegistry;
+import org.cloudbus.cloudsim.cloudlets.ObservableCloudletSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the failed Cloudlets to resubmit at each resubmission check,
+ * comparing a scan of every created Cloudlet (as ReactiveMech used to do at every tick)
+ * with a lookup in the {@link CloudletStatusRegistry}. 1% of the Cloudlets are failed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReactiveMechScanBenchmark {
+    @Param({"100", "10000", "1000000"})
+    private int cloudlets;
+
+    private List<Cloudlet> createdList;
+    private CloudletStatusRegistry registry;
+
+    @Setup
+    public void setup() {
+        createdList = new ArrayList<>(cloudlets);
+        registry = new CloudletStatusRegistry();
+        for (int i = 0; i < cloudlets; i++) {
+            final ObservableCloudletSimple cloudlet = new ObservableCloudletSimple(i, 10000, 2);
+            registry.register(cloudlet);
+            cloudlet.setStatus(i % 100 == 0 ? Cloudlet.Status.FAILED : Cloudlet.Status.INEXEC);
+            createdList.add(cloudlet);
+        }
+    }
+
+    @Benchmark
+    public List<Cloudlet> createdListScan() {
+        final List<Cloudlet> resubmitList = new ArrayList<>();
+        for (int i = 0; i < createdList.size(); i++) {
+            final Cloudlet.Status status = createdList.get(i).getStatus();
+            if (status == Cloudlet.Status.FAILED || status == Cloudlet.Status.FAILED_RESOURCE_UNAVAILABLE) {
+                resubmitList.add(createdList.get(i));
+            }
+        }
+
+        return resubmitList;
+    }
+
+    @Benchmark
+    public List<Cloudlet> registryLookup() {
+        return registry.getFailedCloudlets();
+    }
+}
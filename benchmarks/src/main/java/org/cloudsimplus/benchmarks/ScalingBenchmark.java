@@ -0,0 +1,290 @@
+package org.cloudsimplus.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.util.Log;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A macro benchmark that finds where the example scenarios stop scaling.
+ * It builds the same kind of topology as the scenarios' {@code createDatacenter}, {@code createHost},
+ * {@code createVms} and {@code createCloudlets} methods, growing it along one axis at a time
+ * (number of Hosts, VMs per Host, Cloudlets per VM and Datacenter scheduling interval)
+ * while the other axes keep their base values.
+ *
+ * <p>For each configuration it records the wall-clock time, the peak heap usage,
+ * the number of processed simulation events and how many simulated seconds
+ * were run for each wall-clock second. Results are written as CSV and JSON files,
+ * always using a dot as decimal separator so that they can be parsed by other tools.
+ * Configurations run one at a time, so that measurements don't interfere with each other.
+ * Once a configuration takes more than {@link #MAX_WALL_SECONDS}, larger values on the same axis are skipped.</p>
+ */
+public final class ScalingBenchmark {
+    private static final int[] HOSTS = {1, 10, 100, 1_000, 10_000, 100_000};
+    private static final int[] VMS_PER_HOST = {1, 2, 4, 8};
+    private static final int[] CLOUDLETS_PER_VM = {1, 4, 16, 64};
+    private static final double[] SCHEDULING_INTERVALS = {0, 1, 5, 10};
+
+    private static final int BASE_HOSTS = 100;
+    private static final int BASE_VMS_PER_HOST = 2;
+    private static final int BASE_CLOUDLETS_PER_VM = 4;
+    private static final double BASE_SCHEDULING_INTERVAL = 0;
+
+    private static final double MAX_WALL_SECONDS = 600;
+
+    private static final int HOST_PES = 16;
+    private static final int VM_PES = 2;
+    private static final int CLOUDLET_PES = 1;
+    private static final long CLOUDLET_LENGTH = 10_000;
+
+    private static final String CSV_FILE = "scaling-benchmark.csv";
+    private static final String JSON_FILE = "scaling-benchmark.json";
+
+    private final List<Result> results = new ArrayList<>();
+
+    private ScalingBenchmark() {}
+
+    public static void main(String[] args) {
+        //Disables the per-event logging of CloudSim Plus, which would otherwise dominate the measured wall time
+        Log.setLevel(Level.OFF);
+        final ScalingBenchmark benchmark = new ScalingBenchmark();
+
+        for (final int hosts : HOSTS) {
+            if(benchmark.runTooLong("hosts", hosts, BASE_VMS_PER_HOST, BASE_CLOUDLETS_PER_VM, BASE_SCHEDULING_INTERVAL)) break;
+        }
+
+        for (final int vmsPerHost : VMS_PER_HOST) {
+            if(benchmark.runTooLong("vmsPerHost", BASE_HOSTS, vmsPerHost, BASE_CLOUDLETS_PER_VM, BASE_SCHEDULING_INTERVAL)) break;
+        }
+
+        for (final int cloudletsPerVm : CLOUDLETS_PER_VM) {
+            if(benchmark.runTooLong("cloudletsPerVm", BASE_HOSTS, BASE_VMS_PER_HOST, cloudletsPerVm, BASE_SCHEDULING_INTERVAL)) break;
+        }
+
+        for (final double interval : SCHEDULING_INTERVALS) {
+            if(benchmark.runTooLong("schedulingInterval", BASE_HOSTS, BASE_VMS_PER_HOST, BASE_CLOUDLETS_PER_VM, interval)) break;
+        }
+
+        benchmark.writeCsv(Paths.get(CSV_FILE));
+        benchmark.writeJson(Paths.get(JSON_FILE));
+        System.out.printf("%n# Scaling results written to %s and %s%n", CSV_FILE, JSON_FILE);
+    }
+
+    /**
+     * Runs a configuration and checks if it took too long for larger ones on the same axis to be tried.
+     *
+     * @return true if the configuration took more than {@link #MAX_WALL_SECONDS}, false otherwise
+     */
+    private boolean runTooLong(
+        final String axis, final int hosts, final int vmsPerHost, final int cloudletsPerVm, final double schedulingInterval)
+    {
+        final Result result = run(axis, hosts, vmsPerHost, cloudletsPerVm, schedulingInterval);
+        results.add(result);
+        System.out.println(result);
+        return result.wallSeconds > MAX_WALL_SECONDS;
+    }
+
+    private Result run(
+        final String axis, final int hosts, final int vmsPerHost, final int cloudletsPerVm, final double schedulingInterval)
+    {
+        final List<MemoryPoolMXBean> heapPools = heapPools();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        final long start = System.nanoTime();
+        final CloudSim simulation = new CloudSim();
+        final long[] events = {0};
+        simulation.addOnEventProcessingListener(evt -> events[0]++);
+
+        final Datacenter datacenter = createDatacenter(simulation, hosts);
+        datacenter.setSchedulingInterval(schedulingInterval);
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        final List<Vm> vms = createVms(hosts * vmsPerHost);
+        broker.submitVmList(vms);
+        broker.submitCloudletList(createCloudlets(vms.size() * cloudletsPerVm));
+        simulation.start();
+        final double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = 0;
+        for (final MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+
+        return new Result(
+            axis, hosts, vmsPerHost, cloudletsPerVm, schedulingInterval,
+            wallSeconds, peakHeap, events[0], simulation.clock());
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        final List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        }
+
+        return pools;
+    }
+
+    private static Datacenter createDatacenter(final CloudSim simulation, final int hosts) {
+        final List<Host> hostList = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; i++) {
+            hostList.add(createHost());
+        }
+
+        return new DatacenterSimple(simulation, hostList);
+    }
+
+    private static Host createHost() {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(1000));
+        }
+
+        final long ram = 16384; //in Megabytes
+        final long bw = 100000; //in Megabits/s
+        final long storage = 1000000; //in Megabytes
+        return new HostSimple(ram, bw, storage, peList);
+    }
+
+    private static List<Vm> createVms(final int vms) {
+        final List<Vm> list = new ArrayList<>(vms);
+        for (int i = 0; i < vms; i++) {
+            final Vm vm = new VmSimple(1000, VM_PES);
+            vm.setRam(512).setBw(1000).setSize(10000).setCloudletScheduler(new CloudletSchedulerTimeShared());
+            list.add(vm);
+        }
+
+        return list;
+    }
+
+    private static List<Cloudlet> createCloudlets(final int cloudlets) {
+        final List<Cloudlet> list = new ArrayList<>(cloudlets);
+        final UtilizationModel utilizationModelFull = new UtilizationModelFull();
+        final UtilizationModel utilizationModelDynamic = new UtilizationModelDynamic(0.1);
+        for (int i = 0; i < cloudlets; i++) {
+            final Cloudlet cloudlet = new CloudletSimple(CLOUDLET_LENGTH, CLOUDLET_PES)
+                .setUtilizationModelCpu(utilizationModelFull)
+                .setUtilizationModelRam(utilizationModelDynamic)
+                .setUtilizationModelBw(utilizationModelDynamic);
+            cloudlet.setSizes(1024);
+            list.add(cloudlet);
+        }
+
+        return list;
+    }
+
+    private void writeCsv(final Path file) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("axis,hosts,vmsPerHost,cloudletsPerVm,schedulingInterval,vms,cloudlets," +
+                        "wallSeconds,peakHeapBytes,events,simulatedSeconds,simulatedSecondsPerWallSecond");
+            for (final Result r : results) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%d,%s,%d,%d,%.6f,%d,%d,%.6f,%.6f%n",
+                    r.axis, r.hosts, r.vmsPerHost, r.cloudletsPerVm, r.schedulingInterval, r.getVms(), r.getCloudlets(),
+                    r.wallSeconds, r.peakHeapBytes, r.events, r.simulatedSeconds, r.getSimulatedSecondsPerWallSecond());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJson(final Path file) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                final Result r = results.get(i);
+                out.printf(Locale.ROOT,
+                    "  {\"axis\": \"%s\", \"hosts\": %d, \"vmsPerHost\": %d, \"cloudletsPerVm\": %d, " +
+                    "\"schedulingInterval\": %s, \"vms\": %d, \"cloudlets\": %d, \"wallSeconds\": %.6f, " +
+                    "\"peakHeapBytes\": %d, \"events\": %d, \"simulatedSeconds\": %.6f, " +
+                    "\"simulatedSecondsPerWallSecond\": %.6f}%s%n",
+                    r.axis, r.hosts, r.vmsPerHost, r.cloudletsPerVm, r.schedulingInterval, r.getVms(), r.getCloudlets(),
+                    r.wallSeconds, r.peakHeapBytes, r.events, r.simulatedSeconds, r.getSimulatedSecondsPerWallSecond(),
+                    i < results.size() - 1 ? "," : "");
+            }
+            out.println("]");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The measurements of a single configuration.
+     */
+    private static final class Result {
+        private final String axis;
+        private final int hosts;
+        private final int vmsPerHost;
+        private final int cloudletsPerVm;
+        private final double schedulingInterval;
+        private final double wallSeconds;
+        private final long peakHeapBytes;
+        private final long events;
+        private final double simulatedSeconds;
+
+        private Result(
+            final String axis, final int hosts, final int vmsPerHost, final int cloudletsPerVm,
+            final double schedulingInterval, final double wallSeconds, final long peakHeapBytes,
+            final long events, final double simulatedSeconds)
+        {
+            this.axis = axis;
+            this.hosts = hosts;
+            this.vmsPerHost = vmsPerHost;
+            this.cloudletsPerVm = cloudletsPerVm;
+            this.schedulingInterval = schedulingInterval;
+            this.wallSeconds = wallSeconds;
+            this.peakHeapBytes = peakHeapBytes;
+            this.events = events;
+            this.simulatedSeconds = simulatedSeconds;
+        }
+
+        long getVms() {
+            return (long) hosts * vmsPerHost;
+        }
+
+        long getCloudlets() {
+            return getVms() * cloudletsPerVm;
+        }
+
+        double getSimulatedSecondsPerWallSecond() {
+            return wallSeconds == 0 ? 0 : simulatedSeconds / wallSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%-18s Hosts: %6d VMs: %7d Cloudlets: %8d Interval: %4.1f | Wall: %9.3f s Heap: %6d MB Events: %10d Sim s/wall s: %.2f",
+                axis, hosts, getVms(), getCloudlets(), schedulingInterval,
+                wallSeconds, peakHeapBytes / (1024 * 1024), events, getSimulatedSecondsPerWallSecond());
+        }
+    }
+}
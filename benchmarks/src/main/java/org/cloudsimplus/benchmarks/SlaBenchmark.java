@@ -0,0 +1,120 @@
+package org.cloudsimplus.benchmarks;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudsimplus.slametrics.SlaContract;
+import org.cloudsimplus.slametrics.SlaContractSnapshot;
+import org.cloudsimplus.slametrics.SlaViolationAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the SLA contract and counting SLA violations,
+ * comparing the per-call contract parsing and finished list scan the scenarios used to do
+ * with the {@link SlaContractSnapshot} cache and the {@link SlaViolationAccumulator}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SlaBenchmark {
+    private static final String SLA_CONTRACT_FILE = "CustomerSLA.json";
+
+    @Param({"100", "10000", "1000000"})
+    private int cloudlets;
+
+    private List<Cloudlet> finishedCloudlets;
+    private long[] ids;
+    private Cloudlet.Status[] statuses;
+    private double[] totalTimes;
+    private SlaContractSnapshot sla;
+    private double maxTaskCompletionTime;
+
+    @Setup
+    public void setup() {
+        sla = SlaContractSnapshot.getInstance(SLA_CONTRACT_FILE);
+        maxTaskCompletionTime = SlaContract.getInstance(SLA_CONTRACT_FILE).getTaskCompletionTimeMetric().getMaxDimension().getValue();
+        final SplittableRandom random = new SplittableRandom(cloudlets);
+        finishedCloudlets = new ArrayList<>(cloudlets);
+        ids = new long[cloudlets];
+        statuses = new Cloudlet.Status[cloudlets];
+        totalTimes = new double[cloudlets];
+        for (int i = 0; i < cloudlets; i++) {
+            ids[i] = i;
+            statuses[i] = random.nextInt(100) == 0 ? Cloudlet.Status.FAILED : Cloudlet.Status.SUCCESS;
+            totalTimes[i] = random.nextDouble(2 * sla.getMaxTaskCompletionTime());
+            final double execStartTime = random.nextDouble(3600);
+            finishedCloudlets.add(new FinishedCloudlet(i, statuses[i], execStartTime, execStartTime + totalTimes[i]));
+        }
+    }
+
+    @Benchmark
+    public SlaContract parseContract() {
+        return SlaContract.getInstance(SLA_CONTRACT_FILE);
+    }
+
+    @Benchmark
+    public SlaContractSnapshot cachedSnapshot() {
+        return SlaContractSnapshot.getInstance(SLA_CONTRACT_FILE);
+    }
+
+    /**
+     * The finished list scan done by the former slaViolations method at the end of a simulation.
+     * The contract is parsed in the setup, so that just the scan is compared to the {@link #accumulator()}
+     * (parsing is measured by {@link #parseContract()}).
+     */
+    @Benchmark
+    public int finishedListScan() {
+        int violations = 0;
+        for (int pos = 0; pos < finishedCloudlets.size(); pos++) {
+            final double totalTime = finishedCloudlets.get(pos).getFinishTime() - finishedCloudlets.get(pos).getExecStartTime();
+            if (totalTime > maxTaskCompletionTime) {
+                violations++;
+            }
+        }
+
+        return violations;
+    }
+
+    /**
+     * Accumulates the same number of finished Cloudlets as they would be recorded along the simulation.
+     */
+    @Benchmark
+    public SlaViolationAccumulator accumulator() {
+        final SlaViolationAccumulator accumulator = new SlaViolationAccumulator(sla);
+        for (int i = 0; i < cloudlets; i++) {
+            accumulator.record(ids[i], statuses[i], totalTimes[i]);
+        }
+
+        return accumulator;
+    }
+
+    /**
+     * A Cloudlet with the same status and times it would have in the broker's finished list,
+     * built without running a simulation.
+     */
+    private static final class FinishedCloudlet extends CloudletSimple {
+        private FinishedCloudlet(final long id, final Cloudlet.Status status, final double execStartTime, final double finishTime) {
+            super(id, 10000, 2);
+            setStatus(status);
+            setExecStartTime(execStartTime);
+            setFinishTime(finishTime);
+        }
+    }
+}
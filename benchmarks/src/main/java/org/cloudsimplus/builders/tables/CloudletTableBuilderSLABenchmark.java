@@ -0,0 +1,99 @@
+package org.cloudsimplus.builders.tables;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudsimplus.results.CloudletResultStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the SLA results table from a list of Cloudlets and from a {@link CloudletResultStore},
+ * and the {@link CloudletTableBuilderSLA#roundTime(double, double)} function applied to each of its cells.
+ * It's in the same package of the table builders to reach the package-private roundTime function.
+ * Tables are printed to a stream that discards the output, so that just the building cost is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CloudletTableBuilderSLABenchmark {
+    private static final PrintStream NULL_STREAM = new PrintStream(new OutputStream() {
+        @Override
+        public void write(final int b) {
+            //discards the output
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            //discards the output
+        }
+    });
+
+    @Param({"100", "10000", "1000000"})
+    private int cloudlets;
+
+    private List<Cloudlet> finishedCloudlets;
+    private CloudletResultStore store;
+    private double[] execStartTimes;
+    private double[] finishTimes;
+
+    @Setup
+    public void setup() {
+        final SplittableRandom random = new SplittableRandom(cloudlets);
+        finishedCloudlets = new ArrayList<>(cloudlets);
+        store = new CloudletResultStore(cloudlets);
+        execStartTimes = new double[cloudlets];
+        finishTimes = new double[cloudlets];
+        for (int i = 0; i < cloudlets; i++) {
+            final Cloudlet cloudlet = new CloudletSimple(i, 10000, 2);
+            finishedCloudlets.add(cloudlet);
+            store.record(cloudlet);
+            execStartTimes[i] = random.nextDouble(1000);
+            finishTimes[i] = execStartTimes[i] + random.nextDouble(100);
+        }
+    }
+
+    @Benchmark
+    public double roundTime() {
+        double sum = 0;
+        for (int i = 0; i < cloudlets; i++) {
+            sum += CloudletTableBuilderSLA.roundTime(execStartTimes[i], finishTimes[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public Table buildFromCloudletList() {
+        final TextTable table = new TextTable();
+        table.setPrintStream(NULL_STREAM);
+        new CloudletTableBuilderSLA(finishedCloudlets, table).build();
+        return table;
+    }
+
+    @Benchmark
+    public Table buildFromResultStore() {
+        final TextTable table = new TextTable();
+        table.setPrintStream(NULL_STREAM);
+        new CloudletResultTableBuilder(store, table).build();
+        return table;
+    }
+}